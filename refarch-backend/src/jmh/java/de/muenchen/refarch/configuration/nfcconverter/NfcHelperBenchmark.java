@@ -0,0 +1,31 @@
+package de.muenchen.refarch.configuration.nfcconverter;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of {@link NfcHelper}, i.e. the conversion of a single string.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class NfcHelperBenchmark {
+
+    @Benchmark
+    public boolean isNfc(final NfcPayload payload) {
+        return NfcHelper.isNfc(payload.text);
+    }
+
+    @Benchmark
+    public String nfcConverter(final NfcPayload payload) {
+        return NfcHelper.nfcConverter(payload.text);
+    }
+}
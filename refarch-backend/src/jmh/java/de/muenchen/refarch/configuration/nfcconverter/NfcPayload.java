@@ -0,0 +1,152 @@
+package de.muenchen.refarch.configuration.nfcconverter;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+/**
+ * Payloads of the NFC benchmarks: text of the given kind, repeated up to the given size in bytes
+ * of its UTF-8 encoding.
+ */
+@State(Scope.Benchmark)
+public class NfcPayload {
+
+    /**
+     * Kinds of text, German text contains precomposed or decomposed umlauts and sharp s.
+     */
+    public enum Kind {
+        ASCII("The quick brown fox jumps over the lazy dog. 0123456789 "),
+        GERMAN_NFC("Gr\u00FC\u00DFe aus M\u00FCnchen: B\u00FCrger \u00E4u\u00DFern sich \u00FCber Stra\u00DFensch\u00E4den. "),
+        GERMAN_NFD(Normalizer.normalize(GERMAN_NFC.sample, Normalizer.Form.NFD));
+
+        private final String sample;
+
+        Kind(final String sample) {
+            this.sample = sample;
+        }
+    }
+
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * All characters of the samples are encoded with one or two bytes.
+     */
+    private static final char TWO_BYTES_START = 0x80;
+
+    @Param
+    /* default */ Kind kind;
+
+    @Param({ "100", "10000", "1000000", "50000000" })
+    /* default */ int size;
+
+    /* default */ String text;
+
+    /* default */ byte[] utf8;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final StringBuilder builder = new StringBuilder(size);
+        int length = 0;
+        while (length < size) {
+            for (int i = 0; i < kind.sample.length() && length < size; i++) {
+                final char character = kind.sample.charAt(i);
+                length += character < TWO_BYTES_START ? 1 : 2;
+                builder.append(character);
+            }
+        }
+        text = builder.toString();
+        utf8 = text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Creates a request with the payload as body. Unlike the body of {@link MockHttpServletRequest},
+     * the body is read in bulk like by a servlet container, not byte by byte.
+     *
+     * @param contentType content type of the request
+     * @return the request
+     */
+    /* default */ MockHttpServletRequest request(final String contentType) {
+        final MockHttpServletRequest request = new MockHttpServletRequest("POST", "/theEntity") {
+            @Override
+            public ServletInputStream getInputStream() {
+                return new BodyInputStream(utf8);
+            }
+        };
+        request.setContentType(contentType);
+        request.setContent(utf8);
+        return request;
+    }
+
+    /**
+     * @return number of bytes read
+     */
+    /* default */ static long drain(final InputStream inputStream) throws IOException {
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        long count = 0;
+        for (int read = inputStream.read(buffer); read >= 0; read = inputStream.read(buffer)) {
+            count += read;
+        }
+        return count;
+    }
+
+    /**
+     * @return number of characters read
+     */
+    /* default */ static long drain(final Reader reader) throws IOException {
+        final char[] buffer = new char[BUFFER_SIZE];
+        long count = 0;
+        for (int read = reader.read(buffer); read >= 0; read = reader.read(buffer)) {
+            count += read;
+        }
+        return count;
+    }
+
+    /**
+     * ServletInputStream reading the body in bulk.
+     */
+    private static class BodyInputStream extends ServletInputStream {
+
+        private final ByteArrayInputStream body;
+
+        /* default */ BodyInputStream(final byte[] body) {
+            super();
+            this.body = new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public int read() {
+            return body.read();
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) {
+            return body.read(b, off, len);
+        }
+
+        @Override
+        public boolean isFinished() {
+            return body.available() == 0;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(final ReadListener readListener) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package de.muenchen.refarch.configuration.nfcconverter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+/**
+ * Benchmarks of {@link NfcRequest}, reading the whole body via the input stream or the reader.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class NfcRequestBenchmark {
+
+    private static final Set<String> CONTENT_TYPES = Set.of("application/json");
+
+    @Benchmark
+    public long getInputStream(final NfcPayload payload) throws IOException {
+        try (InputStream inputStream = new NfcRequest(request(payload), CONTENT_TYPES).getInputStream()) {
+            return NfcPayload.drain(inputStream);
+        }
+    }
+
+    @Benchmark
+    public long getReader(final NfcPayload payload) throws IOException {
+        try (BufferedReader reader = new NfcRequest(request(payload), CONTENT_TYPES).getReader()) {
+            return NfcPayload.drain(reader);
+        }
+    }
+
+    private static MockHttpServletRequest request(final NfcPayload payload) {
+        final MockHttpServletRequest request = payload.request("application/json");
+        request.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        return request;
+    }
+}
@@ -0,0 +1,63 @@
+package de.muenchen.refarch.configuration.nfcconverter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Benchmarks of the whole {@link NfcRequestFilter} for a request, whose body is read completely by
+ * the filter chain. The benchmark {@link #withoutFilter} reads the same request without the filter,
+ * the difference is the cost of the filter per request. The character encoding is not set, so the
+ * content type matches the content types of the filter exactly.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class NfcRequestFilterBenchmark {
+
+    private static final String CONTENT_TYPE = "application/json";
+
+    private final NfcRequestFilter filter = new NfcRequestFilter();
+
+    @Setup
+    public void setUp() {
+        filter.setContentTypes(CONTENT_TYPE);
+    }
+
+    @Benchmark
+    public void filter(final NfcPayload payload, final Blackhole blackhole) throws ServletException, IOException {
+        filter.doFilter(payload.request(CONTENT_TYPE), new MockHttpServletResponse(), readingChain(blackhole));
+    }
+
+    @Benchmark
+    public void withoutFilter(final NfcPayload payload, final Blackhole blackhole) throws ServletException, IOException {
+        readingChain(blackhole).doFilter(payload.request(CONTENT_TYPE), new MockHttpServletResponse());
+    }
+
+    private static FilterChain readingChain(final Blackhole blackhole) {
+        return (final ServletRequest request, final ServletResponse response) -> {
+            try (InputStream inputStream = request.getInputStream()) {
+                blackhole.consume(NfcPayload.drain(inputStream));
+            }
+        };
+    }
+}
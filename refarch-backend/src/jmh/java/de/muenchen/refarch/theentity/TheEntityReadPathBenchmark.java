@@ -0,0 +1,128 @@
+package de.muenchen.refarch.theentity;
+
+import static de.muenchen.refarch.TestConstants.SPRING_NO_SECURITY_PROFILE;
+import static de.muenchen.refarch.TestConstants.SPRING_TEST_PROFILE;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+
+import de.muenchen.refarch.MicroServiceApplication;
+import de.muenchen.refarch.TestConstants;
+import de.muenchen.refarch.common.PagingMode;
+import de.muenchen.refarch.theentity.dto.TheEntityMapper;
+import de.muenchen.refarch.theentity.dto.TheEntityResponseDTO;
+import jakarta.persistence.EntityManager;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * Compares the entity based read path (load managed entities, map them via {@link TheEntityMapper},
+ * rebuild the page) with the projection based read path of {@link TheEntityService}. Run with the
+ * GC profiler (default of {@code jmh.args}) to compare the heap allocated per request. Needs Docker
+ * for the database.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class TheEntityReadPathBenchmark {
+
+    private static final int ENTITY_COUNT = 200;
+    private static final int PAGE_SIZE = 50;
+
+    private PostgreSQLContainer<?> postgreSqlContainer;
+    private ConfigurableApplicationContext context;
+    private TheEntityService theEntityService;
+    private TheEntityMapper theEntityMapper;
+    private EntityManager entityManager;
+    private TransactionTemplate transactionTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        postgreSqlContainer = new PostgreSQLContainer<>(DockerImageName.parse(TestConstants.TESTCONTAINERS_POSTGRES_IMAGE));
+        postgreSqlContainer.start();
+        context = new SpringApplicationBuilder(MicroServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles(SPRING_TEST_PROFILE, SPRING_NO_SECURITY_PROFILE)
+                .properties(
+                        "spring.datasource.url=" + postgreSqlContainer.getJdbcUrl(),
+                        "spring.datasource.username=" + postgreSqlContainer.getUsername(),
+                        "spring.datasource.password=" + postgreSqlContainer.getPassword())
+                .run();
+        theEntityService = context.getBean(TheEntityService.class);
+        theEntityMapper = context.getBean(TheEntityMapper.class);
+        entityManager = context.getBean(EntityManager.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        transactionTemplate.setReadOnly(true);
+
+        context.getBean(TheEntityRepository.class).saveAll(IntStream.range(0, ENTITY_COUNT).mapToObj(index -> {
+            final TheEntity entity = new TheEntity();
+            entity.setTextAttribute("Test" + index % 10);
+            return entity;
+        }).toList());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        postgreSqlContainer.stop();
+    }
+
+    @Benchmark
+    public Page<TheEntityResponseDTO> pageOfEntities() {
+        return transactionTemplate.execute(status -> {
+            final List<TheEntity> entities = entityManager.createQuery("select e from TheEntity e", TheEntity.class)
+                    .setMaxResults(PAGE_SIZE)
+                    .setHint(HINT_CACHEABLE, true)
+                    .getResultList();
+            final long total = entityManager.createQuery("select count(e) from TheEntity e", Long.class)
+                    .setHint(HINT_CACHEABLE, true)
+                    .getSingleResult();
+            return new PageImpl<>(entities.stream().map(theEntityMapper::toDTO).toList(), PageRequest.of(0, PAGE_SIZE), total);
+        });
+    }
+
+    @Benchmark
+    public Page<TheEntityResponseDTO> pageOfProjections() {
+        return theEntityService.getAllEntityResponses(0, PAGE_SIZE, PagingMode.EXACT);
+    }
+
+    @Benchmark
+    public List<TheEntityResponseDTO> keysetWindowOfEntities() {
+        return transactionTemplate.execute(status -> entityManager.createQuery("select e from TheEntity e order by e.id", TheEntity.class)
+                .setMaxResults(PAGE_SIZE + 1)
+                .setHint(HINT_CACHEABLE, true)
+                .getResultStream()
+                .limit(PAGE_SIZE)
+                .map(theEntityMapper::toDTO)
+                .toList());
+    }
+
+    @Benchmark
+    public List<TheEntityResponseDTO> keysetWindowOfProjections() {
+        return theEntityService.getEntityResponsesAfter(null, PAGE_SIZE).getContent();
+    }
+}
@@ -0,0 +1,17 @@
+package de.muenchen.refarch.common;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/** Exception if data was modified concurrently. */
+@SuppressWarnings("PMD.MissingSerialVersionUID")
+public class ConflictException extends ResponseStatusException {
+    /**
+     * ConflictException constructor
+     *
+     * @param message Exception message
+     */
+    public ConflictException(final String message) {
+        super(HttpStatus.CONFLICT, message);
+    }
+}
@@ -0,0 +1,56 @@
+package de.muenchen.refarch.common;
+
+import static de.muenchen.refarch.common.ExceptionMessageConstants.MSG_INVALID_CONTINUATION_TOKEN;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.UUID;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Utility class for the opaque continuation tokens used by keyset (seek) pagination.
+ * <p>
+ * A token encodes the sort key of the last element of a page, so the next page can be
+ * requested with a range condition on that key instead of an offset.
+ * </p>
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ContinuationToken {
+
+    private static final int UUID_BYTES = 16;
+
+    /**
+     * Encodes the id of the last seen element into a continuation token.
+     *
+     * @param lastSeenId id of the last element of the current page
+     * @return URL safe continuation token
+     */
+    public static String encode(final UUID lastSeenId) {
+        final ByteBuffer buffer = ByteBuffer.allocate(UUID_BYTES);
+        buffer.putLong(lastSeenId.getMostSignificantBits());
+        buffer.putLong(lastSeenId.getLeastSignificantBits());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * Decodes a continuation token into the id of the last seen element.
+     *
+     * @param token continuation token as created by {@link #encode(UUID)}
+     * @return id of the last seen element
+     * @throws BadRequestException if the token is malformed
+     */
+    public static UUID decode(final String token) {
+        final byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(token);
+        } catch (final IllegalArgumentException e) {
+            throw new BadRequestException(String.format(MSG_INVALID_CONTINUATION_TOKEN, token), e);
+        }
+        if (bytes.length != UUID_BYTES) {
+            throw new BadRequestException(String.format(MSG_INVALID_CONTINUATION_TOKEN, token));
+        }
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
@@ -0,0 +1,87 @@
+package de.muenchen.refarch.common;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.stream.Stream;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Utility class for the strong entity tags (ETags) of resources.
+ * <p>
+ * The tag of a single entity is its version, so it can be checked against the database without
+ * loading the entity. The tag of a list is a hash over the parts identifying its content, e.g.
+ * the ids and versions of the contained entities.
+ * </p>
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ETags {
+
+    /**
+     * Value of {@code If-Match} matching any current representation.
+     */
+    public static final String ANY = "*";
+
+    private static final String MSG_INVALID_IF_MATCH = "Invalid If-Match header %s";
+    private static final char QUOTE = '"';
+    private static final int HASH_BYTES = 16;
+
+    /**
+     * Creates the tag of an entity.
+     *
+     * @param version version of the entity
+     * @return quoted strong entity tag
+     */
+    public static String ofVersion(final long version) {
+        return QUOTE + Long.toString(version) + QUOTE;
+    }
+
+    /**
+     * Creates the tag of a list.
+     *
+     * @param parts parts identifying the content of the list
+     * @return quoted strong entity tag
+     */
+    public static String ofContent(final Stream<String> parts) {
+        final MessageDigest digest = sha256();
+        parts.forEach(part -> {
+            digest.update(part.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        });
+        final byte[] hash = digest.digest();
+        return QUOTE + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, HASH_BYTES)) + QUOTE;
+    }
+
+    /**
+     * Reads the version of an entity from an {@code If-Match} header.
+     *
+     * @param ifMatch value of the header
+     * @return the expected version, {@code null} if the header is missing or matches any version
+     * @throws PreconditionFailedException if the header is no single strong tag of an entity
+     */
+    public static Long parseVersion(final String ifMatch) {
+        if (ifMatch == null || ANY.equals(ifMatch.trim())) {
+            return null;
+        }
+        final String tag = ifMatch.trim();
+        if (tag.length() < 3 || tag.charAt(0) != QUOTE || tag.charAt(tag.length() - 1) != QUOTE) {
+            throw new PreconditionFailedException(String.format(MSG_INVALID_IF_MATCH, ifMatch));
+        }
+        try {
+            return Long.valueOf(tag.substring(1, tag.length() - 1));
+        } catch (final NumberFormatException e) {
+            throw new PreconditionFailedException(String.format(MSG_INVALID_IF_MATCH, ifMatch), e);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
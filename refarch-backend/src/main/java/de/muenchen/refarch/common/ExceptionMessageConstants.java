@@ -4,6 +4,11 @@ import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
+@SuppressWarnings("PMD.DataClass")
 public class ExceptionMessageConstants {
     public static final String MSG_NOT_FOUND = "Could not find entity with id %s";
+    public static final String MSG_VERSION_CONFLICT = "Entity with id %s does not have the expected version %s";
+    public static final String MSG_INVALID_CONTINUATION_TOKEN = "Invalid continuation token %s";
+    public static final String MSG_BATCH_TOO_LARGE = "Batch of %s items exceeds the maximum of %s items";
+    public static final String MSG_BATCH_CHUNK_FAILED = "Writing the chunk of this item failed and was rolled back";
 }
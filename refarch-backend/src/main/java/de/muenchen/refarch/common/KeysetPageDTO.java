@@ -0,0 +1,17 @@
+package de.muenchen.refarch.common;
+
+import java.util.List;
+
+/**
+ * Page of a keyset (seek) pagination without total count.
+ *
+ * @param content elements of the page
+ * @param hasNext whether there are further elements
+ * @param continuationToken token for requesting the next page, {@code null} if there is none
+ * @param <T> type of the elements
+ */
+public record KeysetPageDTO<T>(List<T> content, boolean hasNext, String continuationToken) {
+    public KeysetPageDTO {
+        content = List.copyOf(content);
+    }
+}
@@ -0,0 +1,21 @@
+package de.muenchen.refarch.common;
+
+/**
+ * Mode for determining the total number of elements of a paged listing.
+ */
+public enum PagingMode {
+    /**
+     * Exact total from a {@code count} query.
+     */
+    EXACT,
+    /**
+     * No count query, only one additional element is read to determine whether there is a next page.
+     * The response has no total, see {@link SliceDTO}.
+     */
+    SLICE,
+    /**
+     * Total estimated from the statistics of the database planner instead of a {@code count} query.
+     * Falls back to an exact count if no statistics are available yet.
+     */
+    ESTIMATED
+}
@@ -0,0 +1,27 @@
+package de.muenchen.refarch.common;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/** Exception if a precondition of a conditional request is not met. */
+@SuppressWarnings("PMD.MissingSerialVersionUID")
+public class PreconditionFailedException extends ResponseStatusException {
+    /**
+     * PreconditionFailedException constructor
+     *
+     * @param message Exception message
+     */
+    public PreconditionFailedException(final String message) {
+        super(HttpStatus.PRECONDITION_FAILED, message);
+    }
+
+    /**
+     * PreconditionFailedException constructor
+     *
+     * @param message Exception message
+     * @param cause Cause of the exception
+     */
+    public PreconditionFailedException(final String message, final Throwable cause) {
+        super(HttpStatus.PRECONDITION_FAILED, message, cause);
+    }
+}
@@ -0,0 +1,18 @@
+package de.muenchen.refarch.common;
+
+import java.util.List;
+
+/**
+ * Page of an offset pagination without total count.
+ *
+ * @param content elements of the page
+ * @param pageNumber number of the page
+ * @param pageSize requested size of the page
+ * @param hasNext whether there are further elements
+ * @param <T> type of the elements
+ */
+public record SliceDTO<T>(List<T> content, int pageNumber, int pageSize, boolean hasNext) {
+    public SliceDTO {
+        content = List.copyOf(content);
+    }
+}
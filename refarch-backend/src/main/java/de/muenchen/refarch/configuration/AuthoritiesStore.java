@@ -0,0 +1,49 @@
+package de.muenchen.refarch.configuration;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Store of the authorities fetched from the userinfo endpoint shared by all instances of the
+ * application, which is consulted by {@link UserInfoAuthoritiesService} if its local cache misses.
+ * <p>
+ * Implementations must not throw, so an unavailable store only causes more calls of the userinfo
+ * endpoint.
+ * </p>
+ */
+public interface AuthoritiesStore {
+
+    /**
+     * Store which stores nothing, used if no shared store is configured.
+     */
+    AuthoritiesStore NONE = new AuthoritiesStore() {
+        @Override
+        public Optional<List<SimpleGrantedAuthority>> find(final String subject, final Duration maxAge) {
+            return Optional.empty();
+        }
+
+        @Override
+        public void save(final String subject, final List<SimpleGrantedAuthority> authorities) {
+            // nothing to store
+        }
+    };
+
+    /**
+     * Finds the authorities of a subject.
+     *
+     * @param subject the token subject
+     * @param maxAge the maximum time since the authorities were fetched
+     * @return the authorities, or empty if there are none or they are older than the maximum age
+     */
+    Optional<List<SimpleGrantedAuthority>> find(String subject, Duration maxAge);
+
+    /**
+     * Saves the authorities of a subject just fetched.
+     *
+     * @param subject the token subject
+     * @param authorities the authorities
+     */
+    void save(String subject, List<SimpleGrantedAuthority> authorities);
+}
@@ -4,6 +4,7 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
 import java.io.IOException;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
@@ -14,7 +15,8 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 /**
  * The class adds a {@link HttpHeaders#CACHE_CONTROL} header to each http response, if
- * the header is not already set.
+ * the header is not already set. A {@link HttpHeaders#CACHE_CONTROL} header set later on by the
+ * application, e.g. for responses with an {@link HttpHeaders#ETAG}, replaces the default.
  */
 @Configuration
 public class CacheControlConfiguration {
@@ -58,10 +60,31 @@ public class CacheControlConfiguration {
                 response.addHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL_HEADER_VALUES);
             }
 
-            filterChain.doFilter(request, response);
+            filterChain.doFilter(request, new CacheControlReplacingResponse(response));
 
         }
 
     }
 
+    /**
+     * Response which replaces the {@link HttpHeaders#CACHE_CONTROL} header instead of adding a
+     * second one.
+     */
+    private static class CacheControlReplacingResponse extends HttpServletResponseWrapper {
+
+        /* default */ CacheControlReplacingResponse(final HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public void addHeader(final String name, final String value) {
+            if (HttpHeaders.CACHE_CONTROL.equalsIgnoreCase(name)) {
+                super.setHeader(name, value);
+            } else {
+                super.addHeader(name, value);
+            }
+        }
+
+    }
+
 }
@@ -0,0 +1,44 @@
+package de.muenchen.refarch.configuration;
+
+import com.github.benmanes.caffeine.cache.Expiry;
+import java.time.Duration;
+import java.util.List;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Authorities of a subject cached by {@link UserInfoAuthoritiesService}.
+ *
+ * @param authorities the authorities, empty or the last known ones if the userinfo endpoint failed
+ * @param failed whether the userinfo endpoint failed, so the entry expires after the negative TTL
+ * @param loadedAt time of the cache's ticker the authorities were loaded at
+ */
+/* default */ record CachedAuthorities(List<SimpleGrantedAuthority> authorities, boolean failed, long loadedAt) {
+
+    /**
+     * @param expireAfterWrite time after which loaded authorities expire
+     * @param negativeTtl time after which authorities of failed calls expire
+     * @return the expiry of the cached authorities
+     */
+    /* default */ static Expiry<String, CachedAuthorities> expiry(final Duration expireAfterWrite, final Duration negativeTtl) {
+        final long expireAfterWriteNanos = expireAfterWrite.toNanos();
+        final long negativeTtlNanos = negativeTtl.toNanos();
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(final String subject, final CachedAuthorities authorities, final long currentTime) {
+                return authorities.failed() ? negativeTtlNanos : expireAfterWriteNanos;
+            }
+
+            @Override
+            public long expireAfterUpdate(final String subject, final CachedAuthorities authorities, final long currentTime,
+                    final long currentDuration) {
+                return expireAfterCreate(subject, authorities, currentTime);
+            }
+
+            @Override
+            public long expireAfterRead(final String subject, final CachedAuthorities authorities, final long currentTime,
+                    final long currentDuration) {
+                return currentDuration;
+            }
+        };
+    }
+}
@@ -0,0 +1,13 @@
+package de.muenchen.refarch.configuration;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * This class enables the Spring cache abstraction. The caches themselves are
+ * configured via the {@code spring.cache.*} properties.
+ */
+@Configuration
+@EnableCaching
+public class CachingConfiguration {
+}
@@ -0,0 +1,95 @@
+package de.muenchen.refarch.configuration;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+/**
+ * {@link JwtDecoder} caching the tokens decoded by another decoder, so the signature of a token
+ * sent with many requests is verified and its claims are parsed only once.
+ * <p>
+ * The tokens are cached by their SHA-256 digest until they expire, see
+ * {@link SecurityProperties.JwtCache}. Tokens without expiry and rejected tokens are not cached.
+ * Hit, miss and eviction metrics of the cache are exported via Micrometer.
+ * </p>
+ */
+public class CachingJwtDecoder implements JwtDecoder, MeterBinder {
+
+    private static final String NAME_JWT_CACHE = "jwt_cache";
+
+    private final JwtDecoder jwtDecoder;
+    private final Clock clock;
+    private final Cache<String, Jwt> cache;
+
+    /**
+     * Creates a new instance
+     *
+     * @param jwtDecoder the {@link JwtDecoder} decoding and validating the tokens
+     * @param jwtCache the configuration of the cache
+     */
+    public CachingJwtDecoder(final JwtDecoder jwtDecoder, final SecurityProperties.JwtCache jwtCache) {
+        this(jwtDecoder, jwtCache, Clock.systemUTC());
+    }
+
+    /* default */ CachingJwtDecoder(final JwtDecoder jwtDecoder, final SecurityProperties.JwtCache jwtCache, final Clock clock) {
+        this.jwtDecoder = jwtDecoder;
+        this.clock = clock;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(jwtCache.getMaximumSize())
+                .expireAfter(Expiry.creating((final String digest, final Jwt jwt) -> timeToLive(jwt)))
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, NAME_JWT_CACHE);
+    }
+
+    @Override
+    public Jwt decode(final String token) {
+        final String digest = digest(token);
+        final Jwt cached = cache.getIfPresent(digest);
+        if (cached != null && isValid(cached)) {
+            return cached;
+        }
+        final Jwt jwt = jwtDecoder.decode(token);
+        if (jwt.getExpiresAt() != null) {
+            cache.put(digest, jwt);
+        }
+        return jwt;
+    }
+
+    /**
+     * The cache expires entries lazily, so the expiry of tokens is checked on every access.
+     */
+    private boolean isValid(final Jwt jwt) {
+        return timeToLive(jwt).isPositive();
+    }
+
+    private Duration timeToLive(final Jwt jwt) {
+        final Instant expiresAt = jwt.getExpiresAt();
+        return expiresAt == null ? Duration.ZERO : Duration.between(clock.instant(), expiresAt);
+    }
+
+    private static String digest(final String token) {
+        try {
+            return Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform supports SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package de.muenchen.refarch.configuration;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+/**
+ * Service that extracts the "Authorities" from the claims of the access token, see
+ * {@link SecurityProperties.AuthoritiesClaims}.
+ * <p>
+ * The authorities are cached by the values of these claims, so the claims of all tokens with the
+ * same roles and authorities are converted only once.
+ * </p>
+ */
+@Slf4j
+public class ClaimsAuthoritiesService {
+
+    private static final String CLAIM_REALM_ACCESS = "realm_access";
+    private static final String CLAIM_RESOURCE_ACCESS = "resource_access";
+    private static final String KEY_ROLES = "roles";
+
+    private final SecurityProperties.AuthoritiesClaims authoritiesClaims;
+    private final Cache<ClaimValues, List<SimpleGrantedAuthority>> cache;
+
+    /**
+     * Creates a new instance
+     *
+     * @param securityProperties the {@link SecurityProperties} containing the claims to read and the
+     *            maximum size of the cache
+     */
+    public ClaimsAuthoritiesService(final SecurityProperties securityProperties) {
+        this.authoritiesClaims = securityProperties.getAuthoritiesClaims();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(securityProperties.getAuthoritiesCache().getMaximumSize())
+                .build();
+    }
+
+    /**
+     * Extracts {@link GrantedAuthority}s from the configured claims of the token.
+     *
+     * @param jwt the JWT
+     * @return the {@link GrantedAuthority}s, empty if the token doesn't contain the authorities claim
+     *         or, if no authorities claim is configured, none of the configured claims
+     */
+    public Optional<Collection<SimpleGrantedAuthority>> loadAuthorities(final Jwt jwt) {
+        final boolean authoritiesClaimConfigured = StringUtils.isNotEmpty(authoritiesClaims.getAuthoritiesClaim());
+        final ClaimValues claimValues = new ClaimValues(
+                authoritiesClaimConfigured ? jwt.getClaim(authoritiesClaims.getAuthoritiesClaim()) : null,
+                authoritiesClaims.isRealmRoles() ? jwt.getClaim(CLAIM_REALM_ACCESS) : null,
+                authoritiesClaims.getResourceRolesClients().isEmpty() ? null : jwt.getClaim(CLAIM_RESOURCE_ACCESS));
+        // realm_access and resource_access are contained in every Keycloak token, even without mapped roles
+        if (authoritiesClaimConfigured ? claimValues.authorities() == null : claimValues.isEmpty()) {
+            log.debug("No authority claims in token of subject: {}", jwt.getSubject());
+            return Optional.empty();
+        }
+        final List<SimpleGrantedAuthority> authorities = cache.get(claimValues, this::asAuthorities);
+        log.debug("Resolved authorities (from claims): {}", authorities);
+        return Optional.of(authorities);
+    }
+
+    private List<SimpleGrantedAuthority> asAuthorities(final ClaimValues claimValues) {
+        final Set<SimpleGrantedAuthority> authorities = new LinkedHashSet<>(UserInfoEndpoint.asAuthorities(claimValues.authorities()));
+        if (claimValues.realmAccess() instanceof Map<?, ?> realmAccess) {
+            authorities.addAll(asRoles(realmAccess));
+        }
+        if (claimValues.resourceAccess() instanceof Map<?, ?> resourceAccess) {
+            for (final String client : authoritiesClaims.getResourceRolesClients()) {
+                if (resourceAccess.get(client) instanceof Map<?, ?> clientAccess) {
+                    authorities.addAll(asRoles(clientAccess));
+                }
+            }
+        }
+        return List.copyOf(authorities);
+    }
+
+    private List<SimpleGrantedAuthority> asRoles(final Map<?, ?> access) {
+        return UserInfoEndpoint.asAuthorities(access.get(KEY_ROLES)).stream()
+                .map(role -> new SimpleGrantedAuthority(authoritiesClaims.getRolePrefix() + role.getAuthority()))
+                .toList();
+    }
+
+    /**
+     * Values of the configured claims of a token, {@code null} if not present or not configured.
+     */
+    private record ClaimValues(Object authorities, Object realmAccess, Object resourceAccess) {
+        /* default */ boolean isEmpty() {
+            return authorities == null && realmAccess == null && resourceAccess == null;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package de.muenchen.refarch.configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * This class provides the JCache {@link CacheManager} backing the Hibernate second-level and
+ * query cache.
+ * <p>
+ * The manager is backed by Caffeine and contains one cache per region configured via
+ * {@link HibernateCacheProperties}. Entities opt into the second-level cache via
+ * {@link jakarta.persistence.Cacheable} and {@link org.hibernate.annotations.Cache}.
+ * Hit, miss and eviction metrics of all regions are exported via Micrometer.
+ * </p>
+ * <p>
+ * The update timestamps region holds the last modification of each table. If such an entry is
+ * evicted, cached query results of the table are served as if it never changed, so this region is
+ * always created without bound and expiry, and the application doesn't start if a maximum size or
+ * expiry is configured for it.
+ * </p>
+ */
+@Configuration
+public class HibernateCacheConfiguration {
+
+    private static final String UPDATE_TIMESTAMPS_REGION = RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME;
+
+    private static final long DEFAULT_MAXIMUM_SIZE = 10_000;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(final HibernateCacheProperties hibernateCacheProperties) {
+        final HibernateCacheProperties.Region timestampsRegion = hibernateCacheProperties.getRegions().get(UPDATE_TIMESTAMPS_REGION);
+        if (timestampsRegion != null && (timestampsRegion.getMaximumSize() != null || timestampsRegion.getExpireAfterWrite() != null)) {
+            throw new IllegalStateException("The cache region " + UPDATE_TIMESTAMPS_REGION + " must neither be bounded nor expire");
+        }
+        // own URI per application context, as the caching provider shares managers by URI
+        final CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("hibernate-" + UUID.randomUUID()), Caching.getDefaultClassLoader());
+        hibernateCacheProperties.getRegions().forEach((name, region) -> {
+            if (!UPDATE_TIMESTAMPS_REGION.equals(name)) {
+                final CaffeineConfiguration<Object, Object> configuration = regionConfiguration();
+                configuration.setMaximumSize(OptionalLong.of(region.getMaximumSize() == null ? DEFAULT_MAXIMUM_SIZE : region.getMaximumSize()));
+                if (region.getExpireAfterWrite() != null) {
+                    configuration.setExpireAfterWrite(OptionalLong.of(region.getExpireAfterWrite().toNanos()));
+                }
+                cacheManager.createCache(name, configuration);
+            }
+        });
+        cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, regionConfiguration());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(final CacheManager hibernateCacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    @Bean
+    public MeterBinder hibernateCacheMetrics(final CacheManager hibernateCacheManager) {
+        return registry -> hibernateCacheManager.getCacheNames()
+                .forEach(name -> JCacheMetrics.monitor(registry, hibernateCacheManager.getCache(name)));
+    }
+
+    private static CaffeineConfiguration<Object, Object> regionConfiguration() {
+        final CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        // Hibernate only stores immutable cache entries, so copying them is not needed
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
@@ -0,0 +1,50 @@
+package de.muenchen.refarch.configuration;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import edu.umd.cs.findbugs.annotations.SuppressMatchType;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Properties class that holds the configuration of the regions of the Hibernate second-level
+ * cache, see also {@link HibernateCacheConfiguration}.
+ */
+@ConfigurationProperties(prefix = "hibernate-cache")
+@Validated
+@Data
+@SuppressFBWarnings(value = "EI_EXPOSE_REP", matchType = SuppressMatchType.EXACT)
+public class HibernateCacheProperties {
+
+    /**
+     * Configuration of the cache regions by region name. Every region used by an entity or query
+     * has to be configured here, except the update timestamps region, which is always created.
+     */
+    @NotNull
+    private Map<String, @Valid Region> regions = new LinkedHashMap<>();
+
+    /**
+     * Configuration of a single cache region.
+     */
+    @Data
+    public static class Region {
+        /**
+         * Maximum number of entries of the region, 10000 if not set. Must not be set for the update
+         * timestamps region, which is never bounded.
+         */
+        @Positive
+        private Long maximumSize;
+
+        /**
+         * Time after which an entry expires after it was written. Entries don't expire if not set.
+         * Must not be set for the update timestamps region.
+         */
+        private Duration expireAfterWrite;
+    }
+}
@@ -0,0 +1,95 @@
+package de.muenchen.refarch.configuration;
+
+import java.sql.Array;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link AuthoritiesStore} in the unlogged PostgreSQL table {@code authorities_cache}, so the
+ * userinfo endpoint is called once per subject for all instances of the application instead of
+ * once per instance.
+ * <p>
+ * The table contains one row per subject, which is overwritten whenever the authorities of the
+ * subject are fetched again. The age of the rows is determined by the time of the database, so
+ * the clocks of the instances don't matter. Failing queries are logged and treated as a miss.
+ * </p>
+ */
+@Component
+@Profile("!no-security")
+@ConditionalOnProperty(name = "security.authorities-cache.shared-store", havingValue = "jdbc")
+@Slf4j
+public class JdbcAuthoritiesStore implements AuthoritiesStore {
+
+    private static final String SELECT_STATEMENT = "select authorities from authorities_cache"
+            + " where subject = ? and updated_at > now() - make_interval(secs => ?)";
+
+    private static final String UPSERT_STATEMENT = "insert into authorities_cache (subject, authorities, updated_at) values (?, ?, now())"
+            + " on conflict (subject) do update set authorities = excluded.authorities, updated_at = excluded.updated_at";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Creates a new instance
+     *
+     * @param dataSource the {@link DataSource} of the database containing the table
+     * @param securityProperties the {@link SecurityProperties} containing the query timeout
+     */
+    public JdbcAuthoritiesStore(final DataSource dataSource, final SecurityProperties securityProperties) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        // a slow database must not block authentication longer than a call of the userinfo endpoint
+        this.jdbcTemplate.setQueryTimeout(queryTimeoutSeconds(securityProperties.getAuthoritiesCache().getSharedStoreQueryTimeout()));
+    }
+
+    /**
+     * JDBC timeouts are given in seconds and 0 means no timeout, so the timeout is rounded up to
+     * whole seconds, but at least one second.
+     *
+     * @param timeout the configured timeout
+     * @return the timeout in seconds
+     */
+    /* default */ static int queryTimeoutSeconds(final Duration timeout) {
+        final long seconds = timeout.toSeconds() + (timeout.toNanosPart() == 0 ? 0 : 1);
+        return Math.toIntExact(Math.max(1, seconds));
+    }
+
+    @Override
+    public Optional<List<SimpleGrantedAuthority>> find(final String subject, final Duration maxAge) {
+        try {
+            return jdbcTemplate.query(SELECT_STATEMENT,
+                    resultSet -> resultSet.next() ? Optional.of(asAuthorities(resultSet.getArray(1))) : Optional.empty(),
+                    subject, maxAge.toMillis() / 1000.0);
+        } catch (DataAccessException e) {
+            log.warn("Could not read authorities of token subject {} from the shared store", subject, e);
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void save(final String subject, final List<SimpleGrantedAuthority> authorities) {
+        final String[] names = authorities.stream().map(GrantedAuthority::getAuthority).toArray(String[]::new);
+        try {
+            jdbcTemplate.update(UPSERT_STATEMENT, preparedStatement -> {
+                preparedStatement.setString(1, subject);
+                preparedStatement.setArray(2, preparedStatement.getConnection().createArrayOf("text", names));
+            });
+        } catch (DataAccessException e) {
+            log.warn("Could not write authorities of token subject {} to the shared store", subject, e);
+        }
+    }
+
+    private static List<SimpleGrantedAuthority> asAuthorities(final Array array) throws SQLException {
+        return Arrays.stream((String[]) array.getArray()).map(SimpleGrantedAuthority::new).toList();
+    }
+}
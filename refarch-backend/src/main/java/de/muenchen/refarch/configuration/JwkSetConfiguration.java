@@ -0,0 +1,130 @@
+package de.muenchen.refarch.configuration;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.source.CachingJWKSetSource;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.jwk.source.OutageTolerantJWKSetSource;
+import com.nimbusds.jose.jwk.source.RateLimitReachedException;
+import com.nimbusds.jose.jwk.source.RefreshAheadCachingJWKSetSource;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.DefaultResourceRetriever;
+import com.nimbusds.jose.util.events.Event;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.security.Key;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.oauth2.resource.OAuth2ResourceServerProperties;
+import org.springframework.boot.autoconfigure.security.oauth2.resource.servlet.JwkSetUriJwtDecoderBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * This class provides the source of the keys verifying the signatures of the access tokens, which
+ * replaces the lazily loaded JWK set of the auto-configured
+ * {@link org.springframework.security.oauth2.jwt.JwtDecoder}.
+ * <p>
+ * The JWK set is fetched on startup, before the application is ready, and refreshed in the
+ * background ahead of its expiry. Tokens signed with an unknown key, e.g. after a key rotation,
+ * cause an immediate fetch, which is rate-limited. If the JWK set can't be fetched, the last
+ * fetched keys are used for the outage tolerance, see {@link SecurityProperties.JwkSet}.
+ * </p>
+ */
+@Configuration
+@Profile("!no-security")
+@ConditionalOnProperty("spring.security.oauth2.resourceserver.jwt.jwk-set-uri")
+@Slf4j
+public class JwkSetConfiguration {
+
+    @Bean
+    public JWKSource<SecurityContext> jwkSource(final OAuth2ResourceServerProperties resourceServerProperties,
+            final SecurityProperties securityProperties) throws MalformedURLException {
+        return jwkSource(URI.create(resourceServerProperties.getJwt().getJwkSetUri()).toURL(), securityProperties.getJwkSet());
+    }
+
+    @Bean
+    public JwkSetUriJwtDecoderBuilderCustomizer jwkSourceJwtDecoderCustomizer(final JWKSource<SecurityContext> jwkSource,
+            final OAuth2ResourceServerProperties resourceServerProperties) {
+        final Set<JWSAlgorithm> algorithms = resourceServerProperties.getJwt().getJwsAlgorithms().stream()
+                .map(JWSAlgorithm::parse)
+                .collect(Collectors.toSet());
+        // the processor customizer is applied last, so it replaces the key selector of the builder
+        return builder -> builder.jwtProcessorCustomizer(
+                processor -> processor.setJWSKeySelector(new RateLimitTolerantKeySelector(algorithms, jwkSource)));
+    }
+
+    @Bean
+    public ApplicationRunner jwkSetPrefetch(final JWKSource<SecurityContext> jwkSource) {
+        // runners are called before the application is ready to accept traffic
+        return args -> prefetch(jwkSource);
+    }
+
+    /* default */ static JWKSource<SecurityContext> jwkSource(final URL jwkSetUrl, final SecurityProperties.JwkSet properties) {
+        final DefaultResourceRetriever resourceRetriever = new DefaultResourceRetriever(
+                Math.toIntExact(properties.getConnectTimeout().toMillis()),
+                Math.toIntExact(properties.getReadTimeout().toMillis()),
+                JWKSourceBuilder.DEFAULT_HTTP_SIZE_LIMIT);
+        return JWKSourceBuilder.<SecurityContext>create(jwkSetUrl, resourceRetriever)
+                .cache(properties.getTimeToLive().toMillis(), properties.getRefreshTimeout().toMillis())
+                .refreshAheadCache(properties.getRefreshAheadTime().toMillis(), true, JwkSetConfiguration::logRefreshEvent)
+                .rateLimited(properties.getMinRefetchInterval().toMillis())
+                .outageTolerant(properties.getOutageTolerance().toMillis(), JwkSetConfiguration::logOutageEvent)
+                .build();
+    }
+
+    /* default */ static void prefetch(final JWKSource<SecurityContext> jwkSource) {
+        try {
+            final List<JWK> keys = jwkSource.get(new JWKSelector(new JWKMatcher.Builder().build()), null);
+            log.info("Prefetched JWK set with {} keys", keys.size());
+        } catch (KeySourceException e) {
+            log.warn("Could not prefetch JWK set - it is fetched again with the next request", e);
+        }
+    }
+
+    private static void logRefreshEvent(final Event<CachingJWKSetSource<SecurityContext>, SecurityContext> event) {
+        if (event instanceof RefreshAheadCachingJWKSetSource.ScheduledRefreshFailed<?> failed) {
+            log.warn("Could not refresh JWK set - the cached keys are used until they expire", failed.getException());
+        }
+    }
+
+    private static void logOutageEvent(final Event<OutageTolerantJWKSetSource<SecurityContext>, SecurityContext> event) {
+        if (event instanceof OutageTolerantJWKSetSource.OutageEvent<?> outage) {
+            log.warn("Could not fetch JWK set - the last fetched keys are used for another {} ms", outage.getRemainingTime(),
+                    outage.getException());
+        }
+    }
+
+    /**
+     * Key selector rejecting tokens signed with an unknown key as invalid while the fetches of the
+     * JWK set are rate-limited, instead of failing to verify them.
+     */
+    private static final class RateLimitTolerantKeySelector extends JWSVerificationKeySelector<SecurityContext> {
+
+        private RateLimitTolerantKeySelector(final Set<JWSAlgorithm> algorithms, final JWKSource<SecurityContext> jwkSource) {
+            super(algorithms, jwkSource);
+        }
+
+        @Override
+        public List<Key> selectJWSKeys(final JWSHeader header, final SecurityContext context) throws KeySourceException {
+            try {
+                return super.selectJWSKeys(header, context);
+            } catch (RateLimitReachedException e) {
+                log.debug("JWK set not fetched for unknown key {} - rate limit reached", header.getKeyID());
+                return List.of();
+            }
+        }
+    }
+}
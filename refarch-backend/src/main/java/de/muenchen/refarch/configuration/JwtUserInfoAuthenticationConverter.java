@@ -1,7 +1,11 @@
 package de.muenchen.refarch.configuration;
 
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Function;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
@@ -9,11 +13,15 @@ import org.springframework.security.oauth2.server.resource.authentication.JwtAut
 /**
  * A custom {@link JwtAuthenticationConverter}, which obtains the authorities via
  * {@link UserInfoAuthoritiesService} from the /userinfo endpoint of the OIDC provider.
+ * Optionally, the authorities are read via {@link ClaimsAuthoritiesService} from the claims of the
+ * token and are only obtained from the /userinfo endpoint if the token does not contain them.
  */
 public class JwtUserInfoAuthenticationConverter implements Converter<Jwt, AbstractAuthenticationToken> {
 
     private final UserInfoAuthoritiesService userInfoService;
 
+    private final Function<Jwt, Optional<Collection<SimpleGrantedAuthority>>> claimsAuthorities;
+
     /**
      * Creates a new instance of {@link JwtUserInfoAuthenticationConverter}.
      *
@@ -21,11 +29,27 @@ public class JwtUserInfoAuthenticationConverter implements Converter<Jwt, Abstra
      */
     public JwtUserInfoAuthenticationConverter(final UserInfoAuthoritiesService userInfoService) {
         this.userInfoService = userInfoService;
+        this.claimsAuthorities = jwt -> Optional.empty();
+    }
+
+    /**
+     * Creates a new instance of {@link JwtUserInfoAuthenticationConverter} reading the authorities
+     * from the claims of the token.
+     *
+     * @param userInfoService a {@link UserInfoAuthoritiesService}, used if the token contains no
+     *            authority claims
+     * @param claimsAuthoritiesService a {@link ClaimsAuthoritiesService}
+     */
+    public JwtUserInfoAuthenticationConverter(final UserInfoAuthoritiesService userInfoService,
+            final ClaimsAuthoritiesService claimsAuthoritiesService) {
+        this.userInfoService = userInfoService;
+        this.claimsAuthorities = claimsAuthoritiesService::loadAuthorities;
     }
 
     @Override
     public AbstractAuthenticationToken convert(final Jwt source) {
-        return new JwtAuthenticationToken(source, this.userInfoService.loadAuthorities(source));
+        return new JwtAuthenticationToken(source, this.claimsAuthorities.apply(source)
+                .orElseGet(() -> this.userInfoService.loadAuthorities(source)));
     }
 
 }
@@ -0,0 +1,61 @@
+package de.muenchen.refarch.configuration;
+
+import de.muenchen.refarch.configuration.nfcconverter.NfcJacksonModule;
+import de.muenchen.refarch.configuration.nfcconverter.NfcRequestFilter;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import edu.umd.cs.findbugs.annotations.SuppressMatchType;
+import jakarta.validation.constraints.NotNull;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Properties class that holds the configuration of the NFC normalization of requests, see also
+ * {@link UnicodeConfiguration}.
+ */
+@ConfigurationProperties(prefix = "nfc")
+@Validated
+@Data
+@SuppressFBWarnings(value = "EI_EXPOSE_REP", matchType = SuppressMatchType.EXACT)
+public class NfcProperties {
+
+    /**
+     * Content types of the requests which are normalized by the {@link NfcRequestFilter}. Wildcards
+     * like <em>text/*</em> are supported, a content type with a charset only matches requests with
+     * this charset.
+     */
+    @NotNull
+    private List<String> contentTypes = new ArrayList<>(List.of("text/plain", "application/json", "application/hal+json", "text/html"));
+
+    /**
+     * Content types, out of {@link #contentTypes}, whose body is not rewritten by the
+     * {@link NfcRequestFilter} but normalized by the {@link NfcJacksonModule} while it is parsed.
+     * The module only applies to request bodies of these content types, responses and other JSON
+     * are not affected. Parameters and headers of these requests are still normalized by the filter.
+     */
+    @NotNull
+    private List<String> jsonContentTypes = new ArrayList<>();
+
+    /**
+     * Path patterns of the requests which are normalized by the {@link NfcRequestFilter}, all
+     * requests if empty.
+     */
+    @NotNull
+    private List<String> includePaths = new ArrayList<>();
+
+    /**
+     * Path patterns of the requests which are not normalized by the {@link NfcRequestFilter}, e.g.
+     * endpoints for binary or already normalized content.
+     */
+    @NotNull
+    private List<String> excludePaths = new ArrayList<>();
+
+    /**
+     * Whether the {@link NfcJacksonModule} also normalizes field names which are deserialized as
+     * map keys. Field names of beans and records are matched against their property names and are
+     * not affected.
+     */
+    private boolean normalizeFieldNames;
+}
@@ -1,6 +1,13 @@
 package de.muenchen.refarch.configuration;
 
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.Executor;
 import lombok.RequiredArgsConstructor;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
 import org.springframework.boot.autoconfigure.web.client.RestTemplateAutoConfiguration;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
@@ -8,9 +15,11 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
 
@@ -19,7 +28,8 @@ import org.springframework.security.web.servlet.util.matcher.PathPatternRequestM
  * Automatically used when not running with profile `no-security`.
  * Configures all endpoints to require authentication via access token.
  * (except the Spring Boot Actuator endpoints)
- * Additionally it configures the use of the {@link UserInfoAuthoritiesService}.
+ * Additionally it configures the use of the {@link UserInfoAuthoritiesService} with the HTTP client
+ * of {@link UserInfoClientConfiguration}.
  */
 @RequiredArgsConstructor
 @Configuration
@@ -34,7 +44,19 @@ public class SecurityConfiguration {
     private final SecurityProperties securityProperties;
 
     @Bean
-    public SecurityFilterChain filterChain(final HttpSecurity http) throws Exception {
+    public UserInfoAuthoritiesService userInfoAuthoritiesService(final CloseableHttpClient userInfoHttpClient,
+            final CircuitBreakerRegistry circuitBreakerRegistry,
+            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) final Executor refreshExecutor,
+            final ObjectProvider<AuthoritiesStore> authoritiesStore) {
+        return new UserInfoAuthoritiesService(securityProperties,
+                restTemplateBuilder.requestFactory(() -> new HttpComponentsClientHttpRequestFactory(userInfoHttpClient)),
+                circuitBreakerRegistry.circuitBreaker(UserInfoAuthoritiesService.CIRCUIT_BREAKER_NAME), refreshExecutor,
+                authoritiesStore.getIfAvailable(() -> AuthoritiesStore.NONE));
+    }
+
+    @Bean
+    public SecurityFilterChain filterChain(final HttpSecurity http, final UserInfoAuthoritiesService userInfoAuthoritiesService,
+            final JwtDecoder jwtDecoder, final MeterRegistry meterRegistry) throws Exception {
         http
                 .authorizeHttpRequests((requests) -> requests.requestMatchers(
                         // allow access to /actuator/info
@@ -55,10 +77,31 @@ public class SecurityConfiguration {
                 .authorizeHttpRequests((requests) -> requests.requestMatchers("/**")
                         .authenticated())
                 .oauth2ResourceServer(httpSecurityOAuth2ResourceServerConfigurer -> httpSecurityOAuth2ResourceServerConfigurer
-                        .jwt(jwtConfigurer -> jwtConfigurer.jwtAuthenticationConverter(new JwtUserInfoAuthenticationConverter(
-                                new UserInfoAuthoritiesService(securityProperties.getUserInfoUri(), restTemplateBuilder)))));
+                        .jwt(jwtConfigurer -> jwtConfigurer
+                                .decoder(cachingDecoder(jwtDecoder, meterRegistry))
+                                .jwtAuthenticationConverter(authenticationConverter(userInfoAuthoritiesService))));
 
         return http.build();
     }
 
+    /**
+     * The caching decoder is not a bean, as a bean of type {@link JwtDecoder} replaces the
+     * auto-configured decoder.
+     */
+    private JwtDecoder cachingDecoder(final JwtDecoder jwtDecoder, final MeterRegistry meterRegistry) {
+        if (!securityProperties.getJwtCache().isEnabled()) {
+            return jwtDecoder;
+        }
+        final CachingJwtDecoder cachingJwtDecoder = new CachingJwtDecoder(jwtDecoder, securityProperties.getJwtCache());
+        cachingJwtDecoder.bindTo(meterRegistry);
+        return cachingJwtDecoder;
+    }
+
+    private JwtUserInfoAuthenticationConverter authenticationConverter(final UserInfoAuthoritiesService userInfoAuthoritiesService) {
+        return switch (securityProperties.getAuthoritiesMode()) {
+        case USERINFO -> new JwtUserInfoAuthenticationConverter(userInfoAuthoritiesService);
+        case CLAIMS -> new JwtUserInfoAuthenticationConverter(userInfoAuthoritiesService, new ClaimsAuthoritiesService(securityProperties));
+        };
+    }
+
 }
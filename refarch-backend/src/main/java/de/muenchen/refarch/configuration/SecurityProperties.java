@@ -4,8 +4,12 @@ import de.muenchen.refarch.security.RequestResponseLoggingFilter;
 import de.muenchen.refarch.security.RequestResponseLoggingFilter.LoggingMode;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import edu.umd.cs.findbugs.annotations.SuppressMatchType;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 import lombok.Data;
@@ -21,6 +25,7 @@ import org.springframework.validation.annotation.Validated;
 @Validated
 @Profile("!no-security")
 @Data
+@SuppressFBWarnings(value = "EI_EXPOSE_REP", matchType = SuppressMatchType.EXACT)
 public class SecurityProperties {
     /**
      * Logging mode for incoming HTTP requests, see also {@link RequestResponseLoggingFilter}
@@ -35,6 +40,51 @@ public class SecurityProperties {
     @NotBlank
     private String userInfoUri;
 
+    /**
+     * Source of the authorities of the user, see also {@link JwtUserInfoAuthenticationConverter}
+     */
+    @NotNull
+    private AuthoritiesMode authoritiesMode = AuthoritiesMode.USERINFO;
+
+    /**
+     * Claims of the access token containing the authorities, if {@link #authoritiesMode} is
+     * {@link AuthoritiesMode#CLAIMS}, see also {@link ClaimsAuthoritiesService}
+     */
+    @NotNull
+    @Valid
+    private AuthoritiesClaims authoritiesClaims = new AuthoritiesClaims();
+
+    /**
+     * Configuration of the cache of the authorities fetched from the userinfo endpoint, see also
+     * {@link UserInfoAuthoritiesService}
+     */
+    @NotNull
+    @Valid
+    private AuthoritiesCache authoritiesCache = new AuthoritiesCache();
+
+    /**
+     * Configuration of the HTTP client calling the userinfo endpoint, see also
+     * {@link UserInfoClientConfiguration}
+     */
+    @NotNull
+    @Valid
+    private UserInfoClient userInfoClient = new UserInfoClient();
+
+    /**
+     * Configuration of the cache of the decoded access tokens, see also {@link CachingJwtDecoder}
+     */
+    @NotNull
+    @Valid
+    private JwtCache jwtCache = new JwtCache();
+
+    /**
+     * Configuration of the JWK set used to verify the signatures of the access tokens, see also
+     * {@link JwkSetConfiguration}
+     */
+    @NotNull
+    @Valid
+    private JwkSet jwkSet = new JwkSet();
+
     /**
      * List of paths to ignore when logging HTTP requests, see also {@link RequestResponseLoggingFilter}
      */
@@ -53,4 +103,236 @@ public class SecurityProperties {
     public void setLoggingIgnoreList(final List<String> patterns) {
         this.loggingIgnoreList = patterns.stream().map(pattern -> PathPatternRequestMatcher.withDefaults().matcher(pattern)).collect(Collectors.toList());
     }
+
+    /**
+     * Configuration of the cache of the authorities by token subject.
+     */
+    @Data
+    public static class AuthoritiesCache {
+        /**
+         * Age of an entry after which it is refreshed in the background by the next request of the
+         * subject, which is still served the cached authorities.
+         */
+        @NotNull
+        private Duration refreshAfterWrite = Duration.ofSeconds(60);
+
+        /**
+         * Age of an entry after which it expires, so the next request of the subject waits for the
+         * userinfo endpoint. Should be greater than {@link #refreshAfterWrite}.
+         */
+        @NotNull
+        private Duration expireAfterWrite = Duration.ofMinutes(5);
+
+        /**
+         * Time after which an entry expires if the userinfo endpoint failed, so requests of the
+         * subject don't call it again before.
+         */
+        @NotNull
+        private Duration negativeTtl = Duration.ofSeconds(10);
+
+        /**
+         * Time after {@link #expireAfterWrite} during which the last known authorities are granted
+         * if the userinfo endpoint fails. Disabled if zero.
+         */
+        @NotNull
+        private Duration graceWindow = Duration.ZERO;
+
+        /**
+         * Maximum number of subjects in the cache.
+         */
+        @Positive
+        private long maximumSize = 10_000;
+
+        /**
+         * Store shared by all instances, which is consulted if the cache misses, see also
+         * {@link AuthoritiesStore}.
+         */
+        @NotNull
+        private SharedStore sharedStore = SharedStore.NONE;
+
+        /**
+         * Timeout for queries of the shared store, rounded up to seconds, at least one second.
+         */
+        @NotNull
+        private Duration sharedStoreQueryTimeout = Duration.ofSeconds(1);
+    }
+
+    /**
+     * Store of the authorities shared by all instances.
+     */
+    public enum SharedStore {
+        /**
+         * Each instance caches the authorities on its own.
+         */
+        NONE,
+        /**
+         * The authorities are shared via the table {@code authorities_cache} of the database, see
+         * {@link JdbcAuthoritiesStore}.
+         */
+        JDBC
+    }
+
+    /**
+     * Configuration of the pooled HTTP client for the userinfo endpoint.
+     */
+    @Data
+    public static class UserInfoClient {
+        /**
+         * Timeout for establishing a connection.
+         */
+        @NotNull
+        private Duration connectTimeout = Duration.ofSeconds(2);
+
+        /**
+         * Timeout for waiting for the response, i.e. the maximum inactivity between two data
+         * packets.
+         */
+        @NotNull
+        private Duration responseTimeout = Duration.ofSeconds(5);
+
+        /**
+         * Timeout for waiting for a connection from the pool.
+         */
+        @NotNull
+        private Duration connectionRequestTimeout = Duration.ofSeconds(1);
+
+        /**
+         * Maximum number of connections of the pool.
+         */
+        @Positive
+        private int maxConnections = 50;
+
+        /**
+         * Maximum number of connections of the pool per route, i.e. per host of the identity
+         * provider.
+         */
+        @Positive
+        private int maxConnectionsPerRoute = 20;
+
+        /**
+         * Time after which idle connections are closed. Connections are kept alive for this time,
+         * unless the server limits it by the Keep-Alive header.
+         */
+        @NotNull
+        private Duration idleTimeout = Duration.ofSeconds(30);
+
+        /**
+         * Time after which connections are not reused anymore, e.g. to pick up DNS changes.
+         */
+        @NotNull
+        private Duration timeToLive = Duration.ofMinutes(5);
+    }
+
+    /**
+     * Configuration of the fetching and caching of the JWK set.
+     */
+    @Data
+    public static class JwkSet {
+        /**
+         * Time the JWK set is cached.
+         */
+        @NotNull
+        private Duration timeToLive = Duration.ofMinutes(5);
+
+        /**
+         * Time before the expiry of the cached JWK set at which it is refreshed in the background.
+         */
+        @NotNull
+        private Duration refreshAheadTime = Duration.ofSeconds(30);
+
+        /**
+         * Maximum time requests wait for a refresh of the JWK set by another request.
+         */
+        @NotNull
+        private Duration refreshTimeout = Duration.ofSeconds(10);
+
+        /**
+         * Minimum time between two fetches of the JWK set caused by tokens signed with an unknown key.
+         */
+        @NotNull
+        private Duration minRefetchInterval = Duration.ofSeconds(30);
+
+        /**
+         * Time the last fetched JWK set is used while the JWK set can't be fetched.
+         */
+        @NotNull
+        private Duration outageTolerance = Duration.ofHours(1);
+
+        /**
+         * Timeout for establishing a connection.
+         */
+        @NotNull
+        private Duration connectTimeout = Duration.ofSeconds(2);
+
+        /**
+         * Timeout for reading the JWK set.
+         */
+        @NotNull
+        private Duration readTimeout = Duration.ofSeconds(5);
+    }
+
+    /**
+     * Source of the authorities of the user.
+     */
+    public enum AuthoritiesMode {
+        /**
+         * The authorities are fetched from the userinfo endpoint.
+         */
+        USERINFO,
+        /**
+         * The authorities are read from the claims of the access token. The userinfo endpoint is
+         * only called if the token doesn't contain the authorities claim, see
+         * {@link AuthoritiesClaims#authoritiesClaim}.
+         */
+        CLAIMS
+    }
+
+    /**
+     * Configuration of the claims of the access token containing the authorities.
+     */
+    @Data
+    public static class AuthoritiesClaims {
+        /**
+         * Claim containing a list of authorities, which are used as they are. If a token doesn't
+         * contain this claim, the authorities are fetched from the userinfo endpoint instead. Not
+         * read if empty, then the userinfo endpoint is only called for tokens without any of the
+         * configured claims.
+         */
+        @NotNull
+        private String authoritiesClaim = "authorities";
+
+        /**
+         * Whether the realm roles of the claim <em>realm_access</em> are read.
+         */
+        private boolean realmRoles = true;
+
+        /**
+         * Clients whose roles of the claim <em>resource_access</em> are read.
+         */
+        @NotNull
+        private List<String> resourceRolesClients = new ArrayList<>();
+
+        /**
+         * Prefix of the authorities of realm and client roles, e.g. for <em>hasRole</em>.
+         */
+        @NotNull
+        private String rolePrefix = "ROLE_";
+    }
+
+    /**
+     * Configuration of the cache of the decoded access tokens.
+     */
+    @Data
+    public static class JwtCache {
+        /**
+         * Whether decoded access tokens are cached until they expire.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Maximum number of access tokens in the cache.
+         */
+        @Positive
+        private long maximumSize = 10_000;
+    }
 }
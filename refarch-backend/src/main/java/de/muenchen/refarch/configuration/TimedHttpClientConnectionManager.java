@@ -0,0 +1,80 @@
+package de.muenchen.refarch.configuration;
+
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.apache.hc.client5.http.io.LeaseRequest;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+/**
+ * {@link HttpClientConnectionManager} recording the time requests wait for a connection of the
+ * pool of the given connection manager.
+ */
+/* default */ final class TimedHttpClientConnectionManager implements HttpClientConnectionManager {
+
+    private final HttpClientConnectionManager connectionManager;
+
+    private final Timer waitTimer;
+
+    /**
+     * @param connectionManager the connection manager leasing the connections
+     * @param waitTimer the timer recording the time waited for a connection
+     */
+    /* default */ TimedHttpClientConnectionManager(final HttpClientConnectionManager connectionManager, final Timer waitTimer) {
+        this.connectionManager = connectionManager;
+        this.waitTimer = waitTimer;
+    }
+
+    @Override
+    public LeaseRequest lease(final String id, final HttpRoute route, final Timeout requestTimeout, final Object state) {
+        final LeaseRequest leaseRequest = connectionManager.lease(id, route, requestTimeout, state);
+        return new LeaseRequest() {
+            @Override
+            public ConnectionEndpoint get(final Timeout timeout) throws InterruptedException, ExecutionException, TimeoutException {
+                final Timer.Sample sample = Timer.start();
+                try {
+                    return leaseRequest.get(timeout);
+                } finally {
+                    sample.stop(waitTimer);
+                }
+            }
+
+            @Override
+            public boolean cancel() {
+                return leaseRequest.cancel();
+            }
+        };
+    }
+
+    @Override
+    public void release(final ConnectionEndpoint endpoint, final Object newState, final TimeValue validDuration) {
+        connectionManager.release(endpoint, newState, validDuration);
+    }
+
+    @Override
+    public void connect(final ConnectionEndpoint endpoint, final TimeValue connectTimeout, final HttpContext context) throws IOException {
+        connectionManager.connect(endpoint, connectTimeout, context);
+    }
+
+    @Override
+    public void upgrade(final ConnectionEndpoint endpoint, final HttpContext context) throws IOException {
+        connectionManager.upgrade(endpoint, context);
+    }
+
+    @Override
+    public void close(final CloseMode closeMode) {
+        connectionManager.close(closeMode);
+    }
+
+    @Override
+    public void close() throws IOException {
+        connectionManager.close();
+    }
+}
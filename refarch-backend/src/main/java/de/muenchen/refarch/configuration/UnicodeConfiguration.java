@@ -1,11 +1,19 @@
 package de.muenchen.refarch.configuration;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.muenchen.refarch.configuration.nfcconverter.NfcJacksonHttpMessageConverter;
+import de.muenchen.refarch.configuration.nfcconverter.NfcJacksonModule;
 import de.muenchen.refarch.configuration.nfcconverter.NfcRequestFilter;
+import java.util.List;
 import org.apache.commons.lang3.ArrayUtils;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.Ordered;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 /**
  * <p>
@@ -14,8 +22,16 @@ import org.springframework.core.Ordered;
  * <ul>
  * <li>All requests that are sent to URIs under <em>/*</em> are filtered.</li>
  * <li>Filter is contained in bean <em>nfcRequestFilter</em>.</li>
- * <li>Only requests with Content-Types <em>text/plain</em>; <em>application/json</em>
- * and <em>text/html</em> are filtered.</li>
+ * <li>Only requests with the Content-Types configured in {@link NfcProperties#getContentTypes()}
+ * are filtered, by default <em>text/plain</em>; <em>application/json</em>;
+ * <em>application/hal+json</em> and <em>text/html</em>.</li>
+ * <li>Requests with paths matching {@link NfcProperties#getExcludePaths()} or not matching
+ * {@link NfcProperties#getIncludePaths()}, if set, are not filtered.</li>
+ * <li>The bodies of requests with the Content-Types configured in
+ * {@link NfcProperties#getJsonContentTypes()} are not rewritten by the filter, instead JSON strings
+ * are normalized by the {@link NfcJacksonModule} while they are parsed. The module is only used by
+ * the {@link NfcJacksonHttpMessageConverter} reading these request bodies, not by the global
+ * {@link ObjectMapper}.</li>
  * </ul>
  */
 @Configuration
@@ -23,27 +39,59 @@ public class UnicodeConfiguration {
 
     private static final String NFC_FILTER_NAME = "nfcRequestFilter";
 
-    private static final String NFC_WHITE_LIST = "text/plain; application/json; application/hal+json; text/html";
+    private static final String SEPARATOR = ", ";
 
     private static final String[] NFC_URLS = ArrayUtils.toArray("/*");
 
     @Bean
-    public FilterRegistrationBean<NfcRequestFilter> nfcRequestFilterRegistration(final NfcRequestFilter nfcRequestFilter) {
+    public FilterRegistrationBean<NfcRequestFilter> nfcRequestFilterRegistration(final NfcRequestFilter nfcRequestFilter,
+            final NfcProperties nfcProperties) {
 
         final FilterRegistrationBean<NfcRequestFilter> registration = new FilterRegistrationBean<>();
         registration.setFilter(nfcRequestFilter);
         registration.setName(NFC_FILTER_NAME);
         registration.setOrder(Ordered.LOWEST_PRECEDENCE);
-        registration.setAsyncSupported(false);
+        // the body can be read non-blocking, see NfcServletInputStream
+        registration.setAsyncSupported(true);
 
         // Set the URLs to which filters are to be applied.
         registration.addUrlPatterns(NFC_URLS);
 
         // Setting the white list of ContentTypes
-        registration.addInitParameter(NfcRequestFilter.CONTENTTYPES_PROPERTY, NFC_WHITE_LIST);
+        registration.addInitParameter(NfcRequestFilter.CONTENTTYPES_PROPERTY, String.join(SEPARATOR, nfcProperties.getContentTypes()));
+
+        // Setting the ContentTypes whose body is normalized by Jackson
+        registration.addInitParameter(NfcRequestFilter.JSON_CONTENTTYPES_PROPERTY,
+                String.join(SEPARATOR, nfcProperties.getJsonContentTypes()));
+
+        // Setting the paths which are filtered or not
+        registration.addInitParameter(NfcRequestFilter.INCLUDE_PATHS_PROPERTY, String.join(SEPARATOR, nfcProperties.getIncludePaths()));
+        registration.addInitParameter(NfcRequestFilter.EXCLUDE_PATHS_PROPERTY, String.join(SEPARATOR, nfcProperties.getExcludePaths()));
 
         return registration;
 
     }
 
+    /**
+     * Adds the {@link NfcJacksonHttpMessageConverter} for the request bodies which are normalized
+     * while they are parsed, in front of the default JSON converter.
+     */
+    @Bean
+    public WebMvcConfigurer nfcMessageConverterConfigurer(final NfcProperties nfcProperties, final ObjectMapper objectMapper) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void extendMessageConverters(final List<HttpMessageConverter<?>> converters) {
+                if (nfcProperties.getJsonContentTypes().isEmpty()) {
+                    return;
+                }
+                final List<MediaType> mediaTypes = MediaType.parseMediaTypes(nfcProperties.getJsonContentTypes());
+                int index = 0;
+                while (index < converters.size() && !(converters.get(index) instanceof MappingJackson2HttpMessageConverter)) {
+                    index++;
+                }
+                converters.add(index, new NfcJacksonHttpMessageConverter(objectMapper, mediaTypes, nfcProperties.isNormalizeFieldNames()));
+            }
+        };
+    }
+
 }
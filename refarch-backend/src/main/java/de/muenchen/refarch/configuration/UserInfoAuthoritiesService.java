@@ -1,117 +1,204 @@
 package de.muenchen.refarch.configuration;
 
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.Ticker;
-import java.util.ArrayList;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.TimeUnit;
-import java.util.stream.Stream;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.cache.Cache;
-import org.springframework.cache.Cache.ValueWrapper;
-import org.springframework.cache.caffeine.CaffeineCache;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.jwt.Jwt;
-import org.springframework.util.ObjectUtils;
-import org.springframework.web.client.RestTemplate;
 
 /**
  * Service that calls an OIDC /userinfo endpoint (with JWT Bearer Auth) and extracts the
  * "Authorities" contained there.
+ * <p>
+ * The authorities are cached by token subject, see {@link SecurityProperties.AuthoritiesCache}.
+ * Entries older than the refresh age are refreshed in the background with the token of the next
+ * request of the subject, which is still served the cached authorities. Hit, miss and eviction
+ * metrics of the cache are exported via Micrometer.
+ * </p>
+ * <p>
+ * Calls of the endpoint are guarded by the {@link CircuitBreaker} <em>userinfo</em>, so requests
+ * don't wait for an identity provider which is down. If a call fails, the user is granted no
+ * authorities, or the last known authorities within the grace window, for the negative TTL.
+ * </p>
+ * <p>
+ * If the cache misses or an entry is refreshed, the {@link AuthoritiesStore} shared by all
+ * instances is consulted first, so the endpoint is called once per subject and refresh age for all
+ * instances. Authorities fetched from the endpoint are saved to the store.
+ * </p>
  */
 @Slf4j
-public class UserInfoAuthoritiesService {
+public class UserInfoAuthoritiesService implements MeterBinder {
 
-    private static final String NAME_AUTHENTICATION_CACHE = "authentication_cache";
-    private static final int AUTHENTICATION_CACHE_ENTRY_SECONDS_TO_EXPIRE = 60;
+    /**
+     * Name of the {@link CircuitBreaker} guarding the calls of the userinfo endpoint.
+     */
+    public static final String CIRCUIT_BREAKER_NAME = "userinfo";
 
-    private static final String CLAIM_AUTHORITIES = "authorities";
+    private static final String NAME_AUTHENTICATION_CACHE = "authentication_cache";
 
     private final String userInfoUri;
-    private final RestTemplate restTemplate;
-    private final Cache cache;
+    private final UserInfoEndpoint userInfoEndpoint;
+    private final CircuitBreaker circuitBreaker;
+    private final Duration refreshAfterWrite;
+    private final boolean graceWindowEnabled;
+    private final Executor refreshExecutor;
+    private final AuthoritiesStore authoritiesStore;
+    private final Ticker ticker;
+    private final AsyncCache<String, CachedAuthorities> cache;
+    private final Cache<String, List<SimpleGrantedAuthority>> lastKnownAuthorities;
+    private final Set<String> refreshingSubjects = ConcurrentHashMap.newKeySet();
 
     /**
      * Creates a new instance
      *
-     * @param userInfoUri userinfo endpoint URI
+     * @param securityProperties the {@link SecurityProperties} containing the userinfo endpoint URI
+     *            and the configuration of the cache
      * @param restTemplateBuilder a {@link RestTemplateBuilder}
+     * @param circuitBreaker the {@link CircuitBreaker} guarding the calls of the userinfo endpoint
+     * @param refreshExecutor the {@link Executor} refreshing the cache in the background
+     * @param authoritiesStore the {@link AuthoritiesStore} shared by all instances
      */
-    public UserInfoAuthoritiesService(final String userInfoUri, final RestTemplateBuilder restTemplateBuilder) {
-        this.userInfoUri = userInfoUri;
-        this.restTemplate = restTemplateBuilder.build();
-        this.cache = new CaffeineCache(NAME_AUTHENTICATION_CACHE,
-                Caffeine.newBuilder()
-                        .expireAfterWrite(AUTHENTICATION_CACHE_ENTRY_SECONDS_TO_EXPIRE, TimeUnit.SECONDS)
-                        .ticker(Ticker.systemTicker())
-                        .build());
+    public UserInfoAuthoritiesService(final SecurityProperties securityProperties, final RestTemplateBuilder restTemplateBuilder,
+            final CircuitBreaker circuitBreaker, final Executor refreshExecutor, final AuthoritiesStore authoritiesStore) {
+        this(securityProperties, restTemplateBuilder, circuitBreaker, refreshExecutor, authoritiesStore, Ticker.systemTicker());
+    }
+
+    /* default */ UserInfoAuthoritiesService(final SecurityProperties securityProperties, final RestTemplateBuilder restTemplateBuilder,
+            final CircuitBreaker circuitBreaker, final Executor refreshExecutor, final AuthoritiesStore authoritiesStore,
+            final Ticker ticker) {
+        final SecurityProperties.AuthoritiesCache cacheProperties = securityProperties.getAuthoritiesCache();
+        this.userInfoUri = securityProperties.getUserInfoUri();
+        this.userInfoEndpoint = new UserInfoEndpoint(userInfoUri, restTemplateBuilder.build());
+        this.circuitBreaker = circuitBreaker;
+        this.refreshAfterWrite = cacheProperties.getRefreshAfterWrite();
+        this.graceWindowEnabled = cacheProperties.getGraceWindow().isPositive();
+        this.refreshExecutor = refreshExecutor;
+        this.authoritiesStore = authoritiesStore;
+        this.ticker = ticker;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheProperties.getMaximumSize())
+                .expireAfter(CachedAuthorities.expiry(cacheProperties.getExpireAfterWrite(), cacheProperties.getNegativeTtl()))
+                .ticker(ticker)
+                .recordStats()
+                .buildAsync();
+        this.lastKnownAuthorities = Caffeine.newBuilder()
+                .maximumSize(cacheProperties.getMaximumSize())
+                .expireAfterWrite(cacheProperties.getExpireAfterWrite().plus(cacheProperties.getGraceWindow()))
+                .ticker(ticker)
+                .build();
+        circuitBreaker.getEventPublisher().onStateTransition(event -> log.warn("Circuit breaker of {}: {}", userInfoUri, event));
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, NAME_AUTHENTICATION_CACHE);
+        circuitBreaker.getEventPublisher().onStateTransition(event -> registry.counter("resilience4j.circuitbreaker.state.transitions",
+                "name", event.getCircuitBreakerName(),
+                "from", event.getStateTransition().getFromState().name(),
+                "to", event.getStateTransition().getToState().name()).increment());
     }
 
     /**
      * Calls the /userinfo endpoint and extracts {@link GrantedAuthority}s from the "authorities" claim.
+     * Concurrent calls for the same subject share a single call of the endpoint, as well as a
+     * single refresh.
      *
      * @param jwt the JWT
      * @return the {@link GrantedAuthority}s according to claim "authorities" of /userinfo endpoint
      */
     public Collection<SimpleGrantedAuthority> loadAuthorities(final Jwt jwt) {
-        final ValueWrapper valueWrapper = this.cache.get(jwt.getSubject());
-        if (valueWrapper != null) {
-            // value present in cache
-            @SuppressWarnings("unchecked")
-            final Collection<SimpleGrantedAuthority> authorities = (Collection<SimpleGrantedAuthority>) valueWrapper.get();
-            log.debug("Resolved authorities (from cache): {}", authorities);
-            return authorities;
+        final CompletableFuture<CachedAuthorities> future = new CompletableFuture<>();
+        final CompletableFuture<CachedAuthorities> cached = this.cache.asMap().putIfAbsent(jwt.getSubject(), future);
+        if (cached != null) {
+            // value present in cache or being fetched by another request
+            final CachedAuthorities authorities = cached.join();
+            log.debug("Resolved authorities (from cache): {}", authorities.authorities());
+            if (!authorities.failed()) {
+                refreshIfStale(jwt, authorities);
+            }
+            return authorities.authorities();
         }
-
-        log.debug("Fetching user-info for token subject: {}", jwt.getSubject());
-        @SuppressWarnings("PMD.LooseCoupling")
-        final HttpHeaders headers = new HttpHeaders();
-        headers.set(HttpHeaders.AUTHORIZATION, "Bearer " + jwt.getTokenValue());
-        final HttpEntity<String> entity = new HttpEntity<>(headers);
-
-        Collection<SimpleGrantedAuthority> authorities = new ArrayList<>();
         try {
-            @SuppressWarnings("unchecked")
-            final Map<String, Object> map = restTemplate.exchange(this.userInfoUri, HttpMethod.GET, entity,
-                    Map.class).getBody();
+            final CachedAuthorities authorities = load(jwt);
+            future.complete(authorities);
+            return authorities.authorities();
+        } catch (RuntimeException | Error e) {
+            // failed futures are removed from the cache, so the next request fetches again
+            future.completeExceptionally(e);
+            throw e;
+        }
+    }
 
-            log.debug("Response from user-info Endpoint: {}", map);
-            if (map != null && map.containsKey(CLAIM_AUTHORITIES)) {
-                authorities = asAuthorities(map.get(CLAIM_AUTHORITIES));
+    private CachedAuthorities load(final Jwt jwt) {
+        try {
+            return new CachedAuthorities(fetchAuthorities(jwt), false, ticker.read());
+        } catch (RuntimeException e) {
+            final List<SimpleGrantedAuthority> lastKnown = lastKnownAuthorities.getIfPresent(jwt.getSubject());
+            if (lastKnown != null) {
+                log.warn(String.format("Could not fetch user details from %s - user is granted the last known authorities",
+                        this.userInfoUri), e);
+                return new CachedAuthorities(lastKnown, true, ticker.read());
             }
-            log.debug("Resolved Authorities (from /userinfo Endpoint): {}", authorities);
-            // store
-            this.cache.put(jwt.getSubject(), authorities);
-        } catch (Exception e) {
             log.error(String.format("Could not fetch user details from %s - user is granted NO authorities",
                     this.userInfoUri), e);
+            return new CachedAuthorities(List.of(), true, ticker.read());
         }
+    }
 
-        return authorities;
+    private void refreshIfStale(final Jwt jwt, final CachedAuthorities authorities) {
+        final String subject = jwt.getSubject();
+        final boolean stale = ticker.read() - authorities.loadedAt() >= refreshAfterWrite.toNanos();
+        if (stale && refreshingSubjects.add(subject)) {
+            try {
+                refreshExecutor.execute(() -> refresh(jwt));
+            } catch (RejectedExecutionException e) {
+                refreshingSubjects.remove(subject);
+                log.warn("Could not schedule refresh of user details for token subject: {}", subject, e);
+            }
+        }
     }
 
-    private static List<SimpleGrantedAuthority> asAuthorities(final Object object) {
-        final List<SimpleGrantedAuthority> authorities = new ArrayList<>();
-        Object authoritiesObject = object;
-        if (authoritiesObject instanceof Collection) {
-            final Collection<?> collection = (Collection<?>) authoritiesObject;
-            authoritiesObject = collection.toArray(new Object[0]);
+    private void refresh(final Jwt jwt) {
+        try {
+            cache.put(jwt.getSubject(), CompletableFuture.completedFuture(new CachedAuthorities(fetchAuthorities(jwt), false, ticker.read())));
+        } catch (RuntimeException e) {
+            // the cached authorities are served until they expire
+            log.warn(String.format("Could not refresh user details from %s", this.userInfoUri), e);
+        } finally {
+            refreshingSubjects.remove(jwt.getSubject());
         }
-        if (ObjectUtils.isArray(authoritiesObject)) {
-            authorities.addAll(
-                    Stream.of((Object[]) authoritiesObject)
-                            .map(Object::toString)
-                            .map(SimpleGrantedAuthority::new)
-                            .toList());
+    }
+
+    private List<SimpleGrantedAuthority> fetchAuthorities(final Jwt jwt) {
+        // entries older than the refresh age would be refreshed right away
+        final List<SimpleGrantedAuthority> authorities = authoritiesStore.find(jwt.getSubject(), refreshAfterWrite)
+                .orElseGet(() -> fetchAuthoritiesGuarded(jwt));
+        if (graceWindowEnabled) {
+            lastKnownAuthorities.put(jwt.getSubject(), authorities);
         }
         return authorities;
     }
 
+    private List<SimpleGrantedAuthority> fetchAuthoritiesGuarded(final Jwt jwt) {
+        final List<SimpleGrantedAuthority> authorities = circuitBreaker.executeSupplier(() -> userInfoEndpoint.fetchAuthorities(jwt));
+        authoritiesStore.save(jwt.getSubject(), authorities);
+        return authorities;
+    }
+
 }
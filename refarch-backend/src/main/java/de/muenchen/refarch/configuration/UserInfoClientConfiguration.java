@@ -0,0 +1,83 @@
+package de.muenchen.refarch.configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.IdleConnectionEvictor;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * This class provides the HTTP client calling the userinfo endpoint of the identity provider, see
+ * {@link UserInfoAuthoritiesService}.
+ * <p>
+ * The client has its own connection pool with strict timeouts, so a slow identity provider can't
+ * block request threads indefinitely, see {@link SecurityProperties.UserInfoClient}. Idle and
+ * expired connections are closed in the background, so stale keep-alive connections are not
+ * reused. The usage of the pool, the time waited for a connection
+ * (<em>httpcomponents.httpclient.pool.wait</em>) and, via the
+ * {@link org.springframework.boot.web.client.RestTemplateBuilder}, the latency of the requests
+ * (<em>http.client.requests</em>) are exported via Micrometer.
+ * </p>
+ */
+@Configuration
+@Profile("!no-security")
+public class UserInfoClientConfiguration {
+
+    private static final String CLIENT_NAME = "userinfo";
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager userInfoConnectionManager(final SecurityProperties securityProperties) {
+        final SecurityProperties.UserInfoClient properties = securityProperties.getUserInfoClient();
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(properties.getMaxConnections())
+                .setMaxConnPerRoute(properties.getMaxConnectionsPerRoute())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(properties.getConnectTimeout()))
+                        .setSocketTimeout(Timeout.of(properties.getResponseTimeout()))
+                        .setTimeToLive(TimeValue.of(properties.getTimeToLive()))
+                        .build())
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient userInfoHttpClient(final PoolingHttpClientConnectionManager userInfoConnectionManager,
+            final SecurityProperties securityProperties, final MeterRegistry meterRegistry) {
+        final SecurityProperties.UserInfoClient properties = securityProperties.getUserInfoClient();
+        final Timer waitTimer = Timer.builder("httpcomponents.httpclient.pool.wait")
+                .description("Time waited for a connection of the pool")
+                .tag("httpclient", CLIENT_NAME)
+                .register(meterRegistry);
+        return HttpClients.custom()
+                .setConnectionManager(new TimedHttpClientConnectionManager(userInfoConnectionManager, waitTimer))
+                // the connection manager is closed as a bean of its own
+                .setConnectionManagerShared(true)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(properties.getConnectionRequestTimeout()))
+                        .setResponseTimeout(Timeout.of(properties.getResponseTimeout()))
+                        .build())
+                .build();
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "shutdown")
+    public IdleConnectionEvictor userInfoConnectionEvictor(final PoolingHttpClientConnectionManager userInfoConnectionManager,
+            final SecurityProperties securityProperties) {
+        // the client doesn't start an evictor of its own for a shared connection manager
+        return new IdleConnectionEvictor(userInfoConnectionManager, TimeValue.of(securityProperties.getUserInfoClient().getIdleTimeout()));
+    }
+
+    @Bean
+    public MeterBinder userInfoConnectionPoolMetrics(final PoolingHttpClientConnectionManager userInfoConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(userInfoConnectionManager, CLIENT_NAME);
+    }
+}
@@ -0,0 +1,82 @@
+package de.muenchen.refarch.configuration;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.util.ObjectUtils;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Client of an OIDC /userinfo endpoint (with JWT Bearer Auth), see
+ * {@link UserInfoAuthoritiesService}.
+ */
+@Slf4j
+/* default */ final class UserInfoEndpoint {
+
+    private static final String CLAIM_AUTHORITIES = "authorities";
+
+    private final String uri;
+    private final RestTemplate restTemplate;
+
+    /**
+     * @param uri userinfo endpoint URI
+     * @param restTemplate the {@link RestTemplate} calling the endpoint
+     */
+    /* default */ UserInfoEndpoint(final String uri, final RestTemplate restTemplate) {
+        this.uri = uri;
+        this.restTemplate = restTemplate;
+    }
+
+    /**
+     * Calls the /userinfo endpoint and extracts {@link GrantedAuthority}s from the "authorities" claim.
+     *
+     * @param jwt the JWT
+     * @return the {@link GrantedAuthority}s according to claim "authorities" of /userinfo endpoint
+     */
+    /* default */ List<SimpleGrantedAuthority> fetchAuthorities(final Jwt jwt) {
+        log.debug("Fetching user-info for token subject: {}", jwt.getSubject());
+        @SuppressWarnings("PMD.LooseCoupling")
+        final HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.AUTHORIZATION, "Bearer " + jwt.getTokenValue());
+        final HttpEntity<String> entity = new HttpEntity<>(headers);
+
+        @SuppressWarnings("unchecked")
+        final Map<String, Object> map = restTemplate.exchange(this.uri, HttpMethod.GET, entity,
+                Map.class).getBody();
+
+        log.debug("Response from user-info Endpoint: {}", map);
+        List<SimpleGrantedAuthority> authorities = List.of();
+        if (map != null && map.containsKey(CLAIM_AUTHORITIES)) {
+            authorities = asAuthorities(map.get(CLAIM_AUTHORITIES));
+        }
+        log.debug("Resolved Authorities (from /userinfo Endpoint): {}", authorities);
+        return authorities;
+    }
+
+    /**
+     * @param object a collection or an array of authority names
+     * @return the {@link SimpleGrantedAuthority}s, empty if the object is neither
+     */
+    /* default */ static List<SimpleGrantedAuthority> asAuthorities(final Object object) {
+        Object authoritiesObject = object;
+        if (authoritiesObject instanceof Collection) {
+            final Collection<?> collection = (Collection<?>) authoritiesObject;
+            authoritiesObject = collection.toArray(new Object[0]);
+        }
+        if (ObjectUtils.isArray(authoritiesObject)) {
+            return Stream.of((Object[]) authoritiesObject)
+                    .map(Object::toString)
+                    .map(SimpleGrantedAuthority::new)
+                    .toList();
+        }
+        return List.of();
+    }
+}
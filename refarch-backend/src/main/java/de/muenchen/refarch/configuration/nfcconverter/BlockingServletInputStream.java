@@ -0,0 +1,55 @@
+package de.muenchen.refarch.configuration.nfcconverter;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * ServletInputStream, which reads blocking from a converted stream.
+ */
+/* default */ class BlockingServletInputStream extends ServletInputStream {
+
+    private final InputStream converted;
+
+    private boolean finished;
+
+    /* default */ BlockingServletInputStream(final InputStream converted) {
+        super();
+        this.converted = converted;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final int read = converted.read();
+        finished = read < 0;
+        return read;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        final int read = converted.read(b, off, len);
+        finished = read < 0;
+        return read;
+    }
+
+    @Override
+    public boolean isFinished() {
+        return finished;
+    }
+
+    @Override
+    public boolean isReady() {
+        return true;
+    }
+
+    @Override
+    public void setReadListener(final ReadListener listener) {
+        throw new IllegalStateException("Non-blocking reads are only supported for UTF-8 content");
+    }
+
+    @Override
+    public void close() throws IOException {
+        converted.close();
+    }
+}
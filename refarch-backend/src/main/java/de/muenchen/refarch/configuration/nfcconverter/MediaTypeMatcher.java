@@ -0,0 +1,80 @@
+package de.muenchen.refarch.configuration.nfcconverter;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.MediaType;
+
+/**
+ * List of media types, parsed once, which content types of requests are matched against.
+ * <ul>
+ * <li>Media types may contain wildcards, e.g. <em>text/*</em> or <em>application/*+json</em>.</li>
+ * <li>Parameters of the content type are ignored, except for the charset: a media type with a
+ * charset only matches content types with the same charset.</li>
+ * <li>Media types are separated by <em>,</em> or <em>;</em>. A part separated by <em>;</em> which
+ * contains a <em>=</em> is a parameter of the preceding media type.</li>
+ * </ul>
+ */
+/* default */ final class MediaTypeMatcher {
+
+    private static final String PARAMETER_SEPARATOR = ";";
+
+    private final List<MediaType> mediaTypes;
+
+    /* default */ MediaTypeMatcher(final String mediaTypes) {
+        this.mediaTypes = parse(mediaTypes);
+    }
+
+    /* default */ boolean matches(final MediaType contentType) {
+        for (final MediaType mediaType : mediaTypes) {
+            final Charset charset = mediaType.getCharset();
+            if (mediaType.includes(contentType) && (charset == null || charset.equals(contentType.getCharset()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /* default */ Set<String> getMediaTypes() {
+        return mediaTypes.stream().map(MediaType::toString).collect(Collectors.toUnmodifiableSet());
+    }
+
+    /* default */ boolean isEmpty() {
+        return mediaTypes.isEmpty();
+    }
+
+    /**
+     * @return the media types separated by <em>,</em>
+     */
+    @Override
+    public String toString() {
+        return mediaTypes.stream().map(MediaType::toString).collect(Collectors.joining(", "));
+    }
+
+    private static List<MediaType> parse(final String mediaTypes) {
+        final List<MediaType> parsed = new ArrayList<>();
+        if (StringUtils.isBlank(mediaTypes)) {
+            return parsed;
+        }
+        for (final String mediaTypeList : mediaTypes.split(",")) {
+            final StringBuilder mediaType = new StringBuilder();
+            for (final String part : mediaTypeList.split(PARAMETER_SEPARATOR)) {
+                if (!part.contains("=") && !mediaType.isEmpty()) {
+                    parsed.add(MediaType.parseMediaType(mediaType.toString()));
+                    mediaType.setLength(0);
+                }
+                if (!mediaType.isEmpty()) {
+                    mediaType.append(PARAMETER_SEPARATOR);
+                }
+                mediaType.append(part.trim());
+            }
+            if (StringUtils.isNotBlank(mediaType)) {
+                parsed.add(MediaType.parseMediaType(mediaType.toString()));
+            }
+        }
+        return List.copyOf(parsed);
+    }
+}
@@ -6,11 +6,11 @@ import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import java.text.Normalizer;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -18,6 +18,10 @@ import org.apache.commons.collections4.map.CaseInsensitiveMap;
 
 /**
  * Utility class for NFC normalization
+ * <p>
+ * Almost all input is ASCII or already in NFC. Such input is detected by a quick check and
+ * returned as is, without any allocation.
+ * </p>
  *
  * @see Normalizer
  */
@@ -25,24 +29,52 @@ import org.apache.commons.collections4.map.CaseInsensitiveMap;
 @Slf4j
 public class NfcHelper {
 
+    /**
+     * All characters below the first combining diacritical mark are in NFC and do not compose
+     * with each other.
+     */
+    private static final char FIRST_COMBINING_CHARACTER = '\u0300';
+
+    /**
+     * Checks whether a text is already in the canonical Unicode normal form (NFC). Text consisting
+     * only of characters below {@code U+0300}, e.g. ASCII or Latin-1, is recognized without calling
+     * {@link Normalizer}.
+     *
+     * @param in Input text, may be {@code null}
+     * @return whether the text is in NFC, {@code true} for {@code null}
+     * @see Normalizer#isNormalized(CharSequence, Normalizer.Form)
+     */
+    public static boolean isNfc(final CharSequence in) {
+        if (in == null) {
+            return true;
+        }
+        for (int i = 0; i < in.length(); i++) {
+            if (in.charAt(i) >= FIRST_COMBINING_CHARACTER) {
+                return Normalizer.isNormalized(in, Normalizer.Form.NFC);
+            }
+        }
+        return true;
+    }
+
     /**
      * Converting a string to the canonical Unicode normal form (NFC)
      *
      * @param in Input string
-     * @return Normalized string
+     * @return Normalized string, the input itself if it is already in NFC
      * @see Normalizer#normalize(CharSequence, Normalizer.Form)
      */
     public static String nfcConverter(final String in) {
-        if (in == null) {
-            log.debug("String BEFORE nfc conversion is \"null\".");
-            return null;
+        if (isNfc(in)) {
+            return in;
         }
 
-        log.debug("String BEFORE nfc conversion: \"{}\".", in);
-        log.debug("Length of String BEFORE nfc conversion: {}.", in.length());
         final String nfcConvertedContent = Normalizer.normalize(in, Normalizer.Form.NFC);
-        log.debug("String AFTER nfc conversion: \"{}\".", nfcConvertedContent);
-        log.debug("Length of String AFTER nfc conversion: {}.", nfcConvertedContent.length());
+        if (log.isDebugEnabled()) {
+            log.debug("String BEFORE nfc conversion: \"{}\".", in);
+            log.debug("Length of String BEFORE nfc conversion: {}.", in.length());
+            log.debug("String AFTER nfc conversion: \"{}\".", nfcConvertedContent);
+            log.debug("Length of String AFTER nfc conversion: {}.", nfcConvertedContent.length());
+        }
         return nfcConvertedContent;
     }
 
@@ -50,11 +82,14 @@ public class NfcHelper {
      * Converting {@link StringBuffer} content to canonical Unicode normal form (NFC)
      *
      * @param in Input buffer
-     * @return Normalized buffer
+     * @return Normalized buffer, the input itself if it is already in NFC
      * @see #nfcConverter(String)
      * @see Normalizer#normalize(CharSequence, Normalizer.Form)
      */
     public static StringBuffer nfcConverter(final StringBuffer in) {
+        if (isNfc(in)) {
+            return in;
+        }
         return new StringBuffer(nfcConverter(in.toString()));
     }
 
@@ -62,11 +97,14 @@ public class NfcHelper {
      * Converting an array of strings into the canonical Unicode normal form (NFC)
      *
      * @param original Input array
-     * @return Array with normalized strings
+     * @return Array with normalized strings, the input itself if all strings are already in NFC
      * @see #nfcConverter(String)
      * @see Normalizer#normalize(CharSequence, Normalizer.Form)
      */
     public static String[] nfcConverter(final String... original) {
+        if (isNfc(original)) {
+            return original;
+        }
         return Arrays.stream(original)
                 .map(NfcHelper::nfcConverter)
                 .toArray(String[]::new);
@@ -76,11 +114,14 @@ public class NfcHelper {
      * Converting a {@link Map} of strings into the canonical Unicode normal form (NFC).
      *
      * @param original Input map
-     * @return Map with normalized content
+     * @return Map with normalized content, the input itself if all keys and values are already in NFC
      * @see #nfcConverter(String)
      * @see Normalizer#normalize(CharSequence, Normalizer.Form)
      */
     public static Map<String, String[]> nfcConverter(final Map<String, String[]> original) {
+        if (isNfc(original)) {
+            return original;
+        }
         final Map<String, String[]> nfcConverted = new HashMap<>(original.size());
         original.forEach((nfdKey, nfdValueArray) -> nfcConverted.put(
                 nfcConverter(nfdKey),
@@ -92,7 +133,7 @@ public class NfcHelper {
      * Converting a {@link Cookie} to the canonical Unicode normal form (NFC).
      *
      * @param original Input cookie
-     * @return Cookie with normalized content
+     * @return Cookie with normalized content, the input itself if all its strings are already in NFC
      * @see #nfcConverter(String)
      * @see Normalizer#normalize(CharSequence, Normalizer.Form)
      */
@@ -102,6 +143,9 @@ public class NfcHelper {
             matchType = SuppressMatchType.EXACT
     )
     public static Cookie nfcConverter(final Cookie original) {
+        if (isNfc(original)) {
+            return original;
+        }
         final Cookie nfcCookie = new Cookie(nfcConverter(original.getName()), nfcConverter(original.getValue()));
         nfcCookie.setHttpOnly(original.isHttpOnly());
         nfcCookie.setSecure(original.getSecure());
@@ -118,7 +162,7 @@ public class NfcHelper {
      * Converting an array of {@link Cookie}s to canonical Unicode normal form (NFC).
      *
      * @param original Input array of cookies
-     * @return Array with normalized cookies
+     * @return Array with normalized cookies, the input itself if all cookies are already in NFC
      * @see #nfcConverter(String)
      * @see Normalizer#normalize(CharSequence, Normalizer.Form)
      */
@@ -126,6 +170,9 @@ public class NfcHelper {
         if (original == null) {
             return new Cookie[0];
         }
+        if (isNfc(original)) {
+            return original;
+        }
         return Arrays.stream(original)
                 .map(NfcHelper::nfcConverter)
                 .toArray(Cookie[]::new);
@@ -143,13 +190,74 @@ public class NfcHelper {
     public static Map<String, List<String>> nfcConverterForHeadersFromOriginalRequest(final HttpServletRequest originalRequest) {
         final Map<String, List<String>> converted = new CaseInsensitiveMap<>();
         Collections.list(originalRequest.getHeaderNames()).forEach(nfdHeaderName -> {
-            final String nfcHeaderName = nfcConverter(nfdHeaderName);
-            final List<String> nfcHeaderEntries = Collections.list(originalRequest.getHeaders(nfdHeaderName)).stream()
-                    .map(NfcHelper::nfcConverter)
-                    .collect(Collectors.toList());
-            converted.put(nfcHeaderName, nfcHeaderEntries);
+            final List<String> nfcHeaderEntries = Collections.list(originalRequest.getHeaders(nfdHeaderName));
+            nfcHeaderEntries.replaceAll(NfcHelper::nfcConverter);
+            converted.put(nfcConverter(nfdHeaderName), nfcHeaderEntries);
         });
         return converted;
     }
 
+    /**
+     * Finds a header or parameter name of the original request, which is not in NFC but equals the
+     * given name after the conversion.
+     *
+     * @return the original name, {@code null} if there is none
+     */
+    /* default */ static String findOriginalName(final String nfcName, final Collection<String> originalNames) {
+        for (final String originalName : originalNames) {
+            if (!isNfc(originalName) && nfcName.equals(nfcConverter(originalName))) {
+                return originalName;
+            }
+        }
+        return null;
+    }
+
+    /* default */ static boolean isAllNfc(final Collection<String> names) {
+        for (final String name : names) {
+            if (!isNfc(name)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isNfc(final String... strings) {
+        for (final String string : strings) {
+            if (!isNfc(string)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isNfc(final Map<String, String[]> map) {
+        for (final Map.Entry<String, String[]> entry : map.entrySet()) {
+            if (!isNfc(entry.getKey()) || !isNfc(entry.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isNfc(final Cookie cookie) {
+        if (!isNfc(cookie.getName(), cookie.getValue(), cookie.getDomain(), cookie.getPath())) {
+            return false;
+        }
+        for (final Map.Entry<String, String> attribute : cookie.getAttributes().entrySet()) {
+            if (!isNfc(attribute.getKey()) || !isNfc(attribute.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isNfc(final Cookie... cookies) {
+        for (final Cookie cookie : cookies) {
+            if (!isNfc(cookie)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
 }
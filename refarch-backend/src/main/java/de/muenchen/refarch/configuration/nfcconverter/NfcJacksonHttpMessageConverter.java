@@ -0,0 +1,47 @@
+package de.muenchen.refarch.configuration.nfcconverter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.lang.reflect.Type;
+import java.util.List;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+/**
+ * <p>
+ * Message converter which reads JSON request bodies with the {@link NfcJacksonModule}, so that
+ * strings are converted to NFC while they are parsed.
+ * </p>
+ *
+ * <strong>Please note:</strong>
+ * <ul>
+ * <li>Only bodies of the given media types are read, other JSON bodies are left to the default
+ * converter. The {@link ObjectMapper} of the application is not changed.</li>
+ * <li>Nothing is written, responses are serialized by the default converter.</li>
+ * </ul>
+ *
+ * @see NfcRequestFilter#setJsonContentTypes(String)
+ */
+public final class NfcJacksonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    /**
+     * @param objectMapper object mapper of the application, which is copied before the
+     *            {@link NfcJacksonModule} is registered
+     * @param mediaTypes media types of the request bodies which are read
+     * @param normalizeFieldNames whether field names deserialized as map keys are converted, too
+     */
+    public NfcJacksonHttpMessageConverter(final ObjectMapper objectMapper, final List<MediaType> mediaTypes, final boolean normalizeFieldNames) {
+        super(objectMapper.copy().registerModule(new NfcJacksonModule(normalizeFieldNames)));
+        setSupportedMediaTypes(mediaTypes);
+    }
+
+    @Override
+    public boolean canWrite(final Class<?> clazz, final MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(final Type type, final Class<?> clazz, final MediaType mediaType) {
+        return false;
+    }
+
+}
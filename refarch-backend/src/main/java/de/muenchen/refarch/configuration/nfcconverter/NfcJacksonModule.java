@@ -0,0 +1,106 @@
+package de.muenchen.refarch.configuration.nfcconverter;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.Version;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.KeyDeserializer;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StringDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleDeserializers;
+import com.fasterxml.jackson.databind.module.SimpleKeyDeserializers;
+import com.fasterxml.jackson.databind.type.LogicalType;
+import java.io.IOException;
+import java.io.Serial;
+
+/**
+ * <p>
+ * Jackson module that converts JSON strings to NFC while they are parsed.
+ * </p>
+ *
+ * <strong>Please note:</strong>
+ * <ul>
+ * <li>Only string values are converted, the request body itself is neither copied nor rewritten.
+ * This also applies to strings within arrays, collections and untyped values, but not to the
+ * textual nodes of a {@code JsonNode} tree.</li>
+ * <li>Optionally, field names are converted as well. As bean properties are matched by their
+ * names, this only affects field names which are deserialized as map keys.</li>
+ * </ul>
+ *
+ * @see NfcRequestFilter
+ * @see java.text.Normalizer
+ */
+public class NfcJacksonModule extends Module {
+
+    private final boolean normalizeFieldNames;
+
+    /**
+     * @param normalizeFieldNames whether field names deserialized as map keys are converted, too
+     */
+    public NfcJacksonModule(final boolean normalizeFieldNames) {
+        super();
+        this.normalizeFieldNames = normalizeFieldNames;
+    }
+
+    @Override
+    public String getModuleName() {
+        return NfcJacksonModule.class.getSimpleName();
+    }
+
+    @Override
+    public Version version() {
+        return Version.unknownVersion();
+    }
+
+    @Override
+    public void setupModule(final SetupContext context) {
+        final SimpleDeserializers deserializers = new SimpleDeserializers();
+        deserializers.addDeserializer(String.class, new NfcStringDeserializer());
+        context.addDeserializers(deserializers);
+        if (normalizeFieldNames) {
+            final SimpleKeyDeserializers keyDeserializers = new SimpleKeyDeserializers();
+            keyDeserializers.addDeserializer(String.class, new NfcKeyDeserializer());
+            context.addKeyDeserializers(keyDeserializers);
+        }
+    }
+
+    /**
+     * Deserializes strings like the default {@link StringDeserializer} and converts them to NFC.
+     */
+    /* default */ static class NfcStringDeserializer extends StdScalarDeserializer<String> {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        /* default */ NfcStringDeserializer() {
+            super(String.class);
+        }
+
+        @Override
+        public LogicalType logicalType() {
+            return LogicalType.Textual;
+        }
+
+        @Override
+        public String deserialize(final JsonParser parser, final DeserializationContext context) throws IOException {
+            return NfcHelper.nfcConverter(StringDeserializer.instance.deserialize(parser, context));
+        }
+
+        @Override
+        public Object getEmptyValue(final DeserializationContext context) {
+            return "";
+        }
+    }
+
+    /**
+     * Converts field names, which are deserialized as map keys, to NFC.
+     */
+    /* default */ static class NfcKeyDeserializer extends KeyDeserializer {
+
+        @Override
+        public Object deserializeKey(final String key, final DeserializationContext context) {
+            return NfcHelper.nfcConverter(key);
+        }
+    }
+
+}
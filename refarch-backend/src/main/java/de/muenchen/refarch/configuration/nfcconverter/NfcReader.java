@@ -1,11 +1,8 @@
 package de.muenchen.refarch.configuration.nfcconverter;
 
-import java.io.CharArrayReader;
 import java.io.IOException;
 import java.io.Reader;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.io.IOUtils;
 
 /**
  * <p>
@@ -16,79 +13,141 @@ import org.apache.commons.io.IOUtils;
  * <ul>
  * <li>With Java readers and writers, an NFC conversion can be carried out safely, as characters are
  * processed there.</li>
- * <li>Before reading the first character, this reader reads the complete text of the wrapped reader
- * into an internal buffer and performs NFC normalization on it.
- * The reason is that NFC conversion cannot be performed on a character-by-character basis.</li>
+ * <li>NFC conversion cannot be performed on a character-by-character basis, as following combining
+ * characters may change the preceding ones. This reader reads the wrapped reader in windows of
+ * {@link #WINDOW_SIZE} characters, normalizes each window up to its last normalization boundary and
+ * holds back only the trailing sequence, which is normalized together with the next window.</li>
+ * <li>Memory usage is bounded by the window size. Only a sequence of more than
+ * {@link #MAX_PENDING_SIZE} characters without any boundary is normalized in parts, such input is
+ * not stream-safe text in the sense of the Unicode standard anyway.</li>
  * </ul>
  */
 @Slf4j
-@RequiredArgsConstructor
 public class NfcReader extends Reader {
 
+    /**
+     * Number of characters read from the wrapped reader at once.
+     */
+    /* default */ static final int WINDOW_SIZE = 8192;
+
+    /**
+     * Maximum number of characters held back while no normalization boundary is found.
+     */
+    /* default */ static final int MAX_PENDING_SIZE = 4 * WINDOW_SIZE;
+
+    private static final int HANGUL_JAMO_VOWEL_START = 0x1160;
+    private static final int HANGUL_JAMO_TRAILING_END = 0x11FF;
+    private static final int HANGUL_JAMO_EXTENDED_B_START = 0xD7B0;
+    private static final int HANGUL_JAMO_EXTENDED_B_END = 0xD7FF;
+
     private final Reader original;
 
-    private CharArrayReader converted;
+    private final char[] window = new char[WINDOW_SIZE];
 
-    private void convert() {
-        if (converted != null) {
-            return;
-        }
+    @SuppressWarnings("PMD.AvoidStringBufferField") // bounded by MAX_PENDING_SIZE + WINDOW_SIZE
+    private final StringBuilder pending = new StringBuilder();
 
-        log.debug("Converting Reader data to NFC.");
-        try {
-            final String nfdContent = IOUtils.toString(original);
-            final String nfcConvertedContent = NfcHelper.nfcConverter(nfdContent);
-            converted = new CharArrayReader(nfcConvertedContent.toCharArray());
-        } catch (final IOException e) {
-            throw new RuntimeException(e);
-        }
+    private String converted = "";
+
+    private int position;
+
+    private boolean endOfInput;
+
+    public NfcReader(final Reader original) {
+        super();
+        this.original = original;
     }
 
-    @Override
-    public int read() throws IOException {
-        convert();
-        return converted.read();
+    /**
+     * Normalizes the next part of the wrapped reader, if all converted characters were read.
+     *
+     * @return {@code true} if there are converted characters to read, {@code false} at the end of
+     *         the input
+     */
+    private boolean convert() throws IOException {
+        while (position >= converted.length()) {
+            if (endOfInput) {
+                return false;
+            }
+            final int read = original.read(window, 0, window.length);
+            if (read < 0) {
+                endOfInput = true;
+                emit(pending.length());
+            } else {
+                pending.append(window, 0, read);
+                final int boundary = lastBoundary(pending);
+                emit(boundary > 0 || pending.length() <= MAX_PENDING_SIZE ? boundary : pending.length());
+            }
+        }
+        return true;
     }
 
-    @Override
-    public int read(final char[] cbuf, final int off, final int len) throws IOException {
-        convert();
-        return converted.read(cbuf, off, len);
+    private void emit(final int length) {
+        if (length == 0) {
+            return;
+        }
+        log.debug("Converting {} characters of Reader data to NFC.", length);
+        converted = NfcHelper.nfcConverter(pending.substring(0, length));
+        position = 0;
+        pending.delete(0, length);
     }
 
-    @Override
-    public void close() {
-        // Nothing to do
+    /**
+     * Finds the last index before which the text can be split without changing its NFC
+     * normalization, i.e. the last character which neither combines with nor reorders against the
+     * preceding characters. These are all characters except combining marks and the conjoining
+     * Hangul vowels and trailing consonants.
+     *
+     * @return index of the last boundary, 0 if there is none
+     */
+    /* default */ static int lastBoundary(final CharSequence text) {
+        int index = text.length();
+        while (index > 0) {
+            final int codePoint = Character.codePointBefore(text, index);
+            index -= Character.charCount(codePoint);
+            if (isBoundaryBefore(codePoint)) {
+                return index;
+            }
+        }
+        return 0;
     }
 
-    @Override
-    public long skip(final long n) throws IOException {
-        convert();
-        return converted.skip(n);
+    /* default */ static boolean isBoundaryBefore(final int codePoint) {
+        final int type = Character.getType(codePoint);
+        if (type == Character.NON_SPACING_MARK || type == Character.COMBINING_SPACING_MARK || type == Character.ENCLOSING_MARK) {
+            return false;
+        }
+        return (codePoint < HANGUL_JAMO_VOWEL_START || codePoint > HANGUL_JAMO_TRAILING_END)
+                && (codePoint < HANGUL_JAMO_EXTENDED_B_START || codePoint > HANGUL_JAMO_EXTENDED_B_END);
     }
 
     @Override
-    public boolean ready() throws IOException {
-        convert();
-        return converted.ready();
+    public int read() throws IOException {
+        return convert() ? converted.charAt(position++) : -1;
     }
 
     @Override
-    public boolean markSupported() {
-        convert();
-        return converted.markSupported();
+    public int read(final char[] cbuf, final int off, final int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!convert()) {
+            return -1;
+        }
+        final int count = Math.min(len, converted.length() - position);
+        converted.getChars(position, position + count, cbuf, off);
+        position += count;
+        return count;
     }
 
     @Override
-    public void mark(final int readAheadLimit) throws IOException {
-        convert();
-        converted.mark(readAheadLimit);
+    public void close() {
+        // Nothing to do
     }
 
     @Override
-    public void reset() throws IOException {
-        convert();
-        converted.reset();
+    public boolean ready() throws IOException {
+        return position < converted.length() || original.ready();
     }
 
 }
@@ -1,7 +1,5 @@
 package de.muenchen.refarch.configuration.nfcconverter;
 
-import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
-import edu.umd.cs.findbugs.annotations.SuppressMatchType;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.ServletInputStream;
 import jakarta.servlet.http.Cookie;
@@ -9,122 +7,168 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletRequestWrapper;
 import jakarta.servlet.http.Part;
 import java.io.BufferedReader;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.IteratorUtils;
-import org.apache.commons.io.IOUtils;
+import org.apache.commons.collections4.map.CaseInsensitiveMap;
+import org.apache.commons.io.input.ReaderInputStream;
 
 /**
  * Wrapper for HttpServletRequest that performs NFC conversion.
+ * <p>
+ * Headers, parameters and cookies are converted lazily: each header and parameter is converted the
+ * first time it is accessed, the result is kept for the rest of the request. Names are only
+ * converted if the request contains names which are not in NFC.
+ * </p>
  *
  * @see java.text.Normalizer
  */
 @Slf4j
 public class NfcRequest extends HttpServletRequestWrapper implements HttpServletRequest {
 
-    private Map<String, String[]> params;
+    /**
+     * Marks parameters which are not present in the request.
+     */
+    private static final String[] NO_VALUES = {};
 
-    private Cookie[] cookies;
+    private final Map<String, List<String>> headers = new CaseInsensitiveMap<>();
+
+    private List<String> originalHeaderNames;
+
+    private List<String> headerNames;
 
-    private Map<String, List<String>> headers;
+    private final Map<String, String[]> params = new HashMap<>();
+
+    private Map<String, String[]> paramMap;
+
+    private Cookie[] cookies;
 
     @SuppressWarnings("unused")
     final private Set<String> contentTypes;
 
+    private final boolean convertBody;
+
     public NfcRequest(final HttpServletRequest request, final Set<String> contentTypes) {
-        super(request);
-        this.contentTypes = Set.copyOf(contentTypes);
+        this(request, contentTypes, true);
     }
 
-    private void convert() {
-        if (params != null) {
-            return;
-        }
-        this.params = NfcHelper.nfcConverter(getRequest().getParameterMap());
-        this.cookies = NfcHelper.nfcConverter(getOriginalRequest().getCookies());
-        this.headers = NfcHelper.nfcConverterForHeadersFromOriginalRequest(getOriginalRequest());
+    /**
+     * @param convertBody whether the body is converted, {@code false} if it is normalized while it
+     *            is parsed, see {@link NfcJacksonModule}
+     */
+    public NfcRequest(final HttpServletRequest request, final Set<String> contentTypes, final boolean convertBody) {
+        super(request);
+        this.contentTypes = Set.copyOf(contentTypes);
+        this.convertBody = convertBody;
     }
 
     @Override
     public Cookie[] getCookies() {
-        convert();
+        if (cookies == null) {
+            cookies = NfcHelper.nfcConverter(getOriginalRequest().getCookies());
+        }
         return Arrays.copyOf(this.cookies, this.cookies.length);
     }
 
     @Override
     public String getHeader(final String name) {
-        convert();
-        final List<String> values = headers.get(NfcHelper.nfcConverter(name));
-        return (values == null) ? null : values.getFirst();
+        final List<String> values = getNfcHeaders(name);
+        return values.isEmpty() ? null : values.getFirst();
     }
 
     @Override
     public Enumeration<String> getHeaders(final String name) {
-        convert();
-        final List<String> values = this.headers.get(NfcHelper.nfcConverter(name));
-        return (values == null) ? Collections.emptyEnumeration() : IteratorUtils.asEnumeration(values.iterator());
+        return IteratorUtils.asEnumeration(getNfcHeaders(name).iterator());
     }
 
     @Override
     public Enumeration<String> getHeaderNames() {
-        convert();
-        return IteratorUtils.asEnumeration(this.headers.keySet().iterator());
+        if (headerNames == null) {
+            headerNames = getOriginalHeaderNames();
+            if (!NfcHelper.isAllNfc(headerNames)) {
+                headerNames = new ArrayList<>(headerNames);
+                headerNames.replaceAll(NfcHelper::nfcConverter);
+            }
+        }
+        return IteratorUtils.asEnumeration(headerNames.iterator());
+    }
+
+    private List<String> getNfcHeaders(final String name) {
+        return headers.computeIfAbsent(NfcHelper.nfcConverter(name), nfcName -> {
+            List<String> values = getOriginalHeaders(nfcName);
+            if (values.isEmpty()) {
+                final String originalName = NfcHelper.findOriginalName(nfcName, getOriginalHeaderNames());
+                if (originalName != null) {
+                    values = getOriginalHeaders(originalName);
+                }
+            }
+            values.replaceAll(NfcHelper::nfcConverter);
+            return values;
+        });
+    }
+
+    private List<String> getOriginalHeaders(final String name) {
+        final Enumeration<String> values = getOriginalRequest().getHeaders(name);
+        return values == null ? new ArrayList<>() : Collections.list(values);
+    }
+
+    private List<String> getOriginalHeaderNames() {
+        if (originalHeaderNames == null) {
+            originalHeaderNames = Collections.list(getOriginalRequest().getHeaderNames());
+        }
+        return originalHeaderNames;
     }
 
     @Override
     public String getPathInfo() {
-        convert();
         return NfcHelper.nfcConverter(getOriginalRequest().getPathInfo());
     }
 
     @Override
     public String getPathTranslated() {
-        convert();
         return NfcHelper.nfcConverter(getOriginalRequest().getPathTranslated());
     }
 
     @Override
     public String getContextPath() {
-        convert();
         return NfcHelper.nfcConverter(getOriginalRequest().getContextPath());
     }
 
     @Override
     public String getQueryString() {
-        convert();
         return NfcHelper.nfcConverter(getOriginalRequest().getQueryString());
     }
 
     @Override
     public String getRemoteUser() {
-        convert();
         return NfcHelper.nfcConverter(getOriginalRequest().getRemoteUser());
     }
 
     @Override
     public String getRequestedSessionId() {
-        convert();
         return NfcHelper.nfcConverter(getOriginalRequest().getRequestedSessionId());
     }
 
     @Override
     public String getRequestURI() {
-        convert();
         return NfcHelper.nfcConverter(getOriginalRequest().getRequestURI());
     }
 
     @Override
     public StringBuffer getRequestURL() {
-        convert();
         return NfcHelper.nfcConverter(getOriginalRequest().getRequestURL());
     }
 
@@ -140,31 +184,51 @@ public class NfcRequest extends HttpServletRequestWrapper implements HttpServlet
 
     @Override
     public String getParameter(final String name) {
-        convert();
-        final String[] values = this.params.get(NfcHelper.nfcConverter(name));
+        final String[] values = getParameterValues(name);
         return (values == null) ? null : values[0];
     }
 
     @Override
     public Map<String, String[]> getParameterMap() {
-        convert();
-        return Map.copyOf(this.params);
+        return Map.copyOf(getNfcParamMap());
     }
 
     @Override
     public Enumeration<String> getParameterNames() {
-        convert();
-        return IteratorUtils.asEnumeration(this.params.keySet().iterator());
+        final Set<String> originalNames = getOriginalRequest().getParameterMap().keySet();
+        final Set<String> names = NfcHelper.isAllNfc(originalNames) ? originalNames : getNfcParamMap().keySet();
+        return IteratorUtils.asEnumeration(names.iterator());
     }
 
     @Override
     public String[] getParameterValues(final String name) {
-        convert();
-        return this.params.get(NfcHelper.nfcConverter(name));
+        final String[] values = params.computeIfAbsent(NfcHelper.nfcConverter(name), nfcName -> {
+            final Map<String, String[]> originalParams = getOriginalRequest().getParameterMap();
+            String[] originalValues = originalParams.get(nfcName);
+            if (originalValues == null) {
+                final String originalName = NfcHelper.findOriginalName(nfcName, originalParams.keySet());
+                if (originalName == null) {
+                    return NO_VALUES;
+                }
+                originalValues = originalParams.get(originalName);
+            }
+            return originalValues == null ? NO_VALUES : NfcHelper.nfcConverter(originalValues);
+        });
+        return values.length == 0 ? null : values;
+    }
+
+    private Map<String, String[]> getNfcParamMap() {
+        if (paramMap == null) {
+            paramMap = NfcHelper.nfcConverter(getOriginalRequest().getParameterMap());
+        }
+        return paramMap;
     }
 
     @Override
     public BufferedReader getReader() throws IOException {
+        if (!convertBody) {
+            return getOriginalRequest().getReader();
+        }
         log.debug("getReader()");
         return new BufferedReader(new NfcReader(getOriginalRequest().getReader()));
     }
@@ -186,20 +250,40 @@ public class NfcRequest extends HttpServletRequestWrapper implements HttpServlet
         return getOriginalRequest().getParts();
     }
 
-    @SuppressFBWarnings(value = "DM_DEFAULT_ENCODING", matchType = SuppressMatchType.EXACT)
+    /**
+     * Returns the body converted to NFC, keeping the declared charset. UTF-8 content is converted
+     * while it is read, also in non-blocking mode. US-ASCII and ISO-8859-1 content cannot contain
+     * characters which are not in NFC and is returned as is. Content in other charsets is converted
+     * via {@link NfcReader} and can only be read blocking. A body which is normalized while it is
+     * parsed is returned as is.
+     */
     @Override
     public ServletInputStream getInputStream() throws IOException {
-
-        final String encoding = getOriginalRequest().getCharacterEncoding();
-
-        final String content;
-        try (InputStream is = getOriginalRequest().getInputStream()) {
-            content = new String(IOUtils.toByteArray(is), encoding);
+        if (!convertBody) {
+            return getOriginalRequest().getInputStream();
+        }
+        final Charset charset = getCharset();
+        if (StandardCharsets.UTF_8.equals(charset)) {
+            log.debug("Converting UTF-8 InputStream data to NFC.");
+            return new NfcServletInputStream(getOriginalRequest().getInputStream());
         }
+        if (StandardCharsets.US_ASCII.equals(charset) || StandardCharsets.ISO_8859_1.equals(charset)) {
+            return getOriginalRequest().getInputStream();
+        }
+        log.debug("Converting {} InputStream data to NFC.", charset);
+        final InputStream nfcInputStream = ReaderInputStream.builder()
+                .setReader(new NfcReader(new InputStreamReader(getOriginalRequest().getInputStream(), charset)))
+                .setCharset(charset)
+                .get();
+        return new BlockingServletInputStream(nfcInputStream);
+    }
 
-        log.debug("Converting InputStream data to NFC.");
-        final String nfcConvertedContent = NfcHelper.nfcConverter(content);
-        return new NfcServletInputStream(new ByteArrayInputStream(nfcConvertedContent.getBytes()));
+    /**
+     * @return the declared charset of the body, UTF-8 if none is declared
+     */
+    private Charset getCharset() {
+        final String encoding = getOriginalRequest().getCharacterEncoding();
+        return encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding);
     }
 
     private HttpServletRequest getOriginalRequest() {
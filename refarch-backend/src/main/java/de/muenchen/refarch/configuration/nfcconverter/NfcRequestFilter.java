@@ -5,15 +5,22 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
-import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 /**
  * <p>
@@ -31,6 +38,11 @@ import org.springframework.web.filter.OncePerRequestFilter;
  * and the conversion of binary data streams requires knowledge of the data format,
  * which implies knowledge of the charset used.
  * This makes NFC normalization in a generic filter seem sensible.</li>
+ * <li>Content types are matched as media types, see {@link MediaTypeMatcher}. The body of content
+ * types with a charset, which cannot encode characters that are not in NFC (US-ASCII and
+ * ISO-8859-1), is passed through unchanged.</li>
+ * <li>Requests are only filtered if their path matches one of the include patterns and none of the
+ * exclude patterns, see {@link PathPattern}.</li>
  * </ul>
  *
  * @see java.text.Normalizer
@@ -39,6 +51,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
  */
 @Component
 @Slf4j
+@SuppressWarnings("PMD.DataClass") // properties are set from the init parameters of the filter registration
 public class NfcRequestFilter extends OncePerRequestFilter {
 
     /**
@@ -49,13 +62,50 @@ public class NfcRequestFilter extends OncePerRequestFilter {
      */
     public static final String CONTENTTYPES_PROPERTY = "contentTypes";
 
-    private final Set<String> contentTypes = new HashSet<>();
+    /**
+     * Name of the property for configuring the content types whose body is normalized by the
+     * {@link NfcJacksonModule} instead of this filter.
+     *
+     * @see #setJsonContentTypes(String)
+     */
+    public static final String JSON_CONTENTTYPES_PROPERTY = "jsonContentTypes";
+
+    /**
+     * Name of the property for configuring the path patterns of the requests which are filtered.
+     *
+     * @see #setIncludePaths(String)
+     */
+    public static final String INCLUDE_PATHS_PROPERTY = "includePaths";
+
+    /**
+     * Name of the property for configuring the path patterns of the requests which are not filtered.
+     *
+     * @see #setExcludePaths(String)
+     */
+    public static final String EXCLUDE_PATHS_PROPERTY = "excludePaths";
+
+    private static final String PATH_SEPARATORS = ",;";
+
+    /**
+     * Charsets which cannot encode any characters that are not in NFC.
+     */
+    private static final Set<Charset> NFC_CHARSETS = Set.of(StandardCharsets.US_ASCII, StandardCharsets.ISO_8859_1);
+
+    private MediaTypeMatcher contentTypes = new MediaTypeMatcher(null);
+
+    private Set<String> contentTypeNames = Set.of();
+
+    private MediaTypeMatcher jsonContentTypes = new MediaTypeMatcher(null);
+
+    private List<PathPattern> includePaths = List.of();
+
+    private List<PathPattern> excludePaths = List.of();
 
     /**
      * @return The property <em>contentTypes</em>
      */
     public String getContentTypes() {
-        return String.join("; ", this.contentTypes);
+        return contentTypes.toString();
     }
 
     /**
@@ -63,19 +113,56 @@ public class NfcRequestFilter extends OncePerRequestFilter {
      */
     @Autowired(required = false)
     public void setContentTypes(final String contentTypes) {
-        this.contentTypes.clear();
-        if (StringUtils.isEmpty(contentTypes)) {
+        this.contentTypes = new MediaTypeMatcher(contentTypes);
+        this.contentTypeNames = this.contentTypes.getMediaTypes();
+        if (this.contentTypes.isEmpty()) {
             log.info("Disabling context-type filter.");
 
         } else {
-            final Set<String> newContentTypes = Arrays.stream(contentTypes.split(";")).map(String::trim)
-                    .collect(Collectors.toSet());
-            this.contentTypes.addAll(newContentTypes);
             log.info("Enabled content-type filtering to NFC for: {}", getContentTypes());
 
         }
     }
 
+    /**
+     * @param jsonContentTypes The property <em>jsonContentTypes</em>, content types whose body is
+     *            passed through unchanged, as it is normalized by the {@link NfcJacksonModule}
+     */
+    public void setJsonContentTypes(final String jsonContentTypes) {
+        this.jsonContentTypes = new MediaTypeMatcher(jsonContentTypes);
+        if (!this.jsonContentTypes.isEmpty()) {
+            log.info("Leaving NFC normalization of the body to Jackson for: {}", this.jsonContentTypes);
+        }
+    }
+
+    /**
+     * @param includePaths The property <em>includePaths</em>, path patterns separated by <em>,</em>
+     *            or <em>;</em>. All requests are filtered if none are set.
+     */
+    public void setIncludePaths(final String includePaths) {
+        this.includePaths = parsePathPatterns(includePaths);
+    }
+
+    /**
+     * @param excludePaths The property <em>excludePaths</em>, path patterns separated by <em>,</em>
+     *            or <em>;</em>
+     */
+    public void setExcludePaths(final String excludePaths) {
+        this.excludePaths = parsePathPatterns(excludePaths);
+        if (!this.excludePaths.isEmpty()) {
+            log.info("Excluding paths from filtering to NFC: {}", excludePaths);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(final HttpServletRequest request) {
+        if (includePaths.isEmpty() && excludePaths.isEmpty()) {
+            return false;
+        }
+        final PathContainer path = PathContainer.parsePath(UrlPathHelper.defaultInstance.getPathWithinApplication(request));
+        return (!includePaths.isEmpty() && !matches(includePaths, path)) || matches(excludePaths, path);
+    }
+
     @Override
     protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response, final FilterChain filterChain)
             throws ServletException, IOException {
@@ -85,13 +172,58 @@ public class NfcRequestFilter extends OncePerRequestFilter {
 
         final String contentType = request.getContentType();
         log.debug("ContentType for request with URI: \"{}\"", contentType);
-        if (contentTypes.contains(contentType)) {
+        final MediaType mediaType = parseMediaType(contentType);
+        if (mediaType != null && contentTypes.matches(mediaType)) {
             log.debug("Processing request {}.", request.getRequestURI());
-            filterChain.doFilter(new NfcRequest(request, contentTypes), response);
+            filterChain.doFilter(new NfcRequest(request, contentTypeNames, isConvertBody(mediaType)), response);
         } else {
             log.debug("Skip processing of HTTP request since it's content type \"{}\" is not in whitelist.", contentType);
             filterChain.doFilter(request, response);
         }
     }
 
+    /**
+     * @return whether the body has to be converted by {@link NfcRequest}, not by Jackson, and may
+     *         contain characters which are not in NFC
+     */
+    private boolean isConvertBody(final MediaType mediaType) {
+        final Charset charset = mediaType.getCharset();
+        return !jsonContentTypes.matches(mediaType) && (charset == null || !NFC_CHARSETS.contains(charset));
+    }
+
+    /**
+     * @return the parsed content type, {@code null} if there is none or it is invalid
+     */
+    private static MediaType parseMediaType(final String contentType) {
+        if (StringUtils.isBlank(contentType)) {
+            return null;
+        }
+        try {
+            return MediaType.parseMediaType(contentType);
+        } catch (final InvalidMediaTypeException e) {
+            log.debug("Invalid content type \"{}\".", contentType, e);
+            return null;
+        }
+    }
+
+    private static List<PathPattern> parsePathPatterns(final String pathPatterns) {
+        if (StringUtils.isBlank(pathPatterns)) {
+            return List.of();
+        }
+        return Arrays.stream(StringUtils.split(pathPatterns, PATH_SEPARATORS))
+                .map(String::trim)
+                .filter(StringUtils::isNotEmpty)
+                .map(PathPatternParser.defaultInstance::parse)
+                .toList();
+    }
+
+    private static boolean matches(final List<PathPattern> pathPatterns, final PathContainer path) {
+        for (final PathPattern pathPattern : pathPatterns) {
+            if (pathPattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
 }
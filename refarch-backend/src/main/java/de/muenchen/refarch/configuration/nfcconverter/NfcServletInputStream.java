@@ -2,39 +2,223 @@ package de.muenchen.refarch.configuration.nfcconverter;
 
 import jakarta.servlet.ReadListener;
 import jakarta.servlet.ServletInputStream;
-import java.io.ByteArrayInputStream;
-import org.apache.commons.lang3.NotImplementedException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
 
 /**
- * ServletInputStream, which reads from a buffer.
+ * ServletInputStream, which converts the UTF-8 encoded content of the wrapped stream to NFC while
+ * it is read.
+ * <p>
+ * The content is read in windows of {@link #WINDOW_SIZE} bytes and converted up to the last
+ * normalization boundary of the window, the trailing sequence is held back until the next window.
+ * ASCII bytes are passed through as is. Only runs of non-ASCII bytes are decoded, together with the
+ * preceding character, and they are only re-encoded if they are not already in NFC.
+ * </p>
+ * <p>
+ * Non-blocking reads via {@link #setReadListener(ReadListener)} are supported. In that case
+ * {@link #isReady()} reads from the wrapped stream only as long as it is ready itself and returns
+ * {@code true} only if converted bytes are available.
+ * </p>
  */
 public class NfcServletInputStream extends ServletInputStream {
 
-    private final ByteArrayInputStream buffer;
+    /**
+     * Number of bytes read from the wrapped stream at once.
+     */
+    /* default */ static final int WINDOW_SIZE = 8192;
 
-    public NfcServletInputStream(final ByteArrayInputStream buffer) {
+    /**
+     * Maximum number of bytes held back while no normalization boundary is found.
+     */
+    /* default */ static final int MAX_PENDING_SIZE = 4 * WINDOW_SIZE;
+
+    private final ServletInputStream original;
+
+    private final byte[] window = new byte[WINDOW_SIZE];
+
+    private byte[] pending = new byte[WINDOW_SIZE];
+
+    private int pendingLength;
+
+    private byte[] converted = new byte[WINDOW_SIZE];
+
+    private int convertedLength;
+
+    private int position;
+
+    private boolean endOfInput;
+
+    private boolean nonBlocking;
+
+    public NfcServletInputStream(final ServletInputStream original) {
         super();
-        this.buffer = buffer;
+        this.original = original;
+    }
+
+    @Override
+    public int read() throws IOException {
+        return convert() ? converted[position++] & 0xFF : -1;
     }
 
     @Override
-    public int read() {
-        return buffer.read();
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, b.length);
+        if (len == 0) {
+            return 0;
+        }
+        if (!convert()) {
+            return -1;
+        }
+        final int count = Math.min(len, convertedLength - position);
+        System.arraycopy(converted, position, b, off, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return convertedLength - position;
     }
 
     @Override
     public boolean isFinished() {
-        return buffer.available() == 0;
+        return position >= convertedLength && (endOfInput || (pendingLength == 0 && original.isFinished()));
     }
 
     @Override
     public boolean isReady() {
-        return true;
+        if (!nonBlocking) {
+            return true;
+        }
+        try {
+            return convert();
+        } catch (final IOException e) {
+            // the error is reported again to the caller of the next read
+            return true;
+        }
     }
 
     @Override
     public void setReadListener(final ReadListener listener) {
-        throw new NotImplementedException("Not implemented");
+        Objects.requireNonNull(listener, "listener");
+        nonBlocking = true;
+        original.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                listener.onDataAvailable();
+            }
+
+            @Override
+            public void onAllDataRead() throws IOException {
+                if (!isFinished()) {
+                    listener.onDataAvailable();
+                }
+                listener.onAllDataRead();
+            }
+
+            @Override
+            public void onError(final Throwable throwable) {
+                listener.onError(throwable);
+            }
+        });
+    }
+
+    @Override
+    public void close() throws IOException {
+        original.close();
+    }
+
+    /**
+     * Converts the next window of the wrapped stream, if all converted bytes were read. In
+     * non-blocking mode, the wrapped stream is only read while it is ready.
+     *
+     * @return {@code true} if there are converted bytes to read
+     */
+    private boolean convert() throws IOException {
+        while (position >= convertedLength) {
+            if (endOfInput) {
+                return false;
+            }
+            final int read = readWindow();
+            if (read == 0) {
+                return false;
+            } else if (read < 0) {
+                endOfInput = true;
+                emit(pendingLength);
+            } else {
+                appendToPending(read);
+                final int boundary = Utf8Sequences.lastBoundary(pending, pendingLength);
+                emit(boundary > 0 || pendingLength <= MAX_PENDING_SIZE ? boundary : Utf8Sequences.completeLength(pending, pendingLength));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return number of bytes read into the window, 0 if the wrapped stream is not ready in
+     *         non-blocking mode, -1 at the end of the input
+     */
+    private int readWindow() throws IOException {
+        if (nonBlocking && !original.isReady()) {
+            return original.isFinished() ? -1 : 0;
+        }
+        return original.read(window, 0, window.length);
+    }
+
+    private void appendToPending(final int length) {
+        if (pendingLength + length > pending.length) {
+            pending = Arrays.copyOf(pending, Math.max(pending.length * 2, pendingLength + length));
+        }
+        System.arraycopy(window, 0, pending, pendingLength, length);
+        pendingLength += length;
+    }
+
+    /**
+     * Converts the first bytes of the pending bytes. ASCII runs are copied as is, all other runs are
+     * decoded together with the preceding ASCII character, which may be their base character.
+     */
+    private void emit(final int length) {
+        if (length == 0) {
+            return;
+        }
+        convertedLength = 0;
+        position = 0;
+        int written = 0;
+        int index = 0;
+        while (index < length) {
+            if (pending[index] >= 0) {
+                index++;
+                continue;
+            }
+            final int runStart = index > written ? index - 1 : index;
+            int runEnd = index;
+            while (runEnd < length && pending[runEnd] < 0) {
+                runEnd++;
+            }
+            write(pending, written, runStart - written);
+            final String run = new String(pending, runStart, runEnd - runStart, StandardCharsets.UTF_8);
+            if (NfcHelper.isNfc(run)) {
+                write(pending, runStart, runEnd - runStart);
+            } else {
+                final byte[] nfcRun = NfcHelper.nfcConverter(run).getBytes(StandardCharsets.UTF_8);
+                write(nfcRun, 0, nfcRun.length);
+            }
+            written = runEnd;
+            index = runEnd;
+        }
+        write(pending, written, length - written);
+        pendingLength -= length;
+        System.arraycopy(pending, length, pending, 0, pendingLength);
+    }
+
+    private void write(final byte[] bytes, final int offset, final int length) {
+        if (convertedLength + length > converted.length) {
+            converted = Arrays.copyOf(converted, Math.max(converted.length * 2, convertedLength + length));
+        }
+        System.arraycopy(bytes, offset, converted, convertedLength, length);
+        convertedLength += length;
     }
 
 }
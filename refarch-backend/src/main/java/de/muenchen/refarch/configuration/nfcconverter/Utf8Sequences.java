@@ -0,0 +1,79 @@
+package de.muenchen.refarch.configuration.nfcconverter;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Utility methods for UTF-8 encoded byte sequences used by {@link NfcServletInputStream}.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+/* default */ final class Utf8Sequences {
+
+    private static final int MAX_SEQUENCE_LENGTH = 4;
+
+    /**
+     * Finds the last index before which the UTF-8 encoded text can be split without changing its NFC
+     * normalization, see {@link NfcReader#lastBoundary(CharSequence)}. Incomplete sequences at the
+     * end are never split off.
+     *
+     * @return index of the last boundary, 0 if there is none
+     */
+    /* default */ static int lastBoundary(final byte[] bytes, final int length) {
+        for (int index = length - 1; index > 0; index--) {
+            final int sequenceLength = sequenceLength(bytes[index]);
+            if (sequenceLength > 0 && index + sequenceLength <= length && NfcReader.isBoundaryBefore(decode(bytes, index, sequenceLength))) {
+                return index;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return the length without an incomplete sequence at the end
+     */
+    /* default */ static int completeLength(final byte[] bytes, final int length) {
+        for (int index = length - 1; index >= Math.max(0, length - MAX_SEQUENCE_LENGTH); index--) {
+            final int sequenceLength = sequenceLength(bytes[index]);
+            if (sequenceLength > 0) {
+                return index + sequenceLength > length ? index : length;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * The length of a sequence is given by the number of leading one bits of its first byte, ASCII
+     * bytes have none.
+     *
+     * @return length of the sequence starting with the given byte, 0 for continuation bytes and
+     *         invalid bytes
+     */
+    /* default */ static int sequenceLength(final byte lead) {
+        final int leadingOnes = Integer.numberOfLeadingZeros(~lead & 0xFF) - (Integer.SIZE - Byte.SIZE);
+        return switch (leadingOnes) {
+        case 0 -> 1;
+        case 2, 3, 4 -> leadingOnes;
+        default -> 0;
+        };
+    }
+
+    /**
+     * Decodes the code point of the complete sequence at the given offset. The payload bits of the
+     * first byte follow its leading one bits and the zero bit after them.
+     *
+     * @return the code point
+     */
+    /* default */ static int decode(final byte[] bytes, final int offset, final int sequenceLength) {
+        int codePoint = switch (sequenceLength) {
+        case 1 -> bytes[offset];
+        case 2 -> bytes[offset] & 0x1F;
+        case 3 -> bytes[offset] & 0x0F;
+        default -> bytes[offset] & 0x07;
+        };
+        for (int index = offset + 1; index < offset + sequenceLength; index++) {
+            codePoint = codePoint << 6 | bytes[index] & 0x3F;
+        }
+        return codePoint;
+    }
+
+}
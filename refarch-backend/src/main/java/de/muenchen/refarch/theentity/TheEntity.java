@@ -1,8 +1,10 @@
 package de.muenchen.refarch.theentity;
 
 import de.muenchen.refarch.common.BaseEntity;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.EqualsAndHashCode;
@@ -10,6 +12,9 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 /**
  * This class represents a TheEntity.
@@ -18,6 +23,8 @@ import lombok.ToString;
  * </p>
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "the_entity")
 // Definition of getter, setter, ...
 @Getter
 @Setter
@@ -37,4 +44,12 @@ public class TheEntity extends BaseEntity {
     @Size(min = 2, max = 8)
     private String textAttribute;
 
+    /**
+     * Version for optimistic locking, incremented on every update.
+     */
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long version;
+
 }
@@ -0,0 +1,182 @@
+package de.muenchen.refarch.theentity;
+
+import static de.muenchen.refarch.common.ExceptionMessageConstants.MSG_BATCH_CHUNK_FAILED;
+import static de.muenchen.refarch.common.ExceptionMessageConstants.MSG_BATCH_TOO_LARGE;
+
+import de.muenchen.refarch.common.BadRequestException;
+import de.muenchen.refarch.security.Authorities;
+import de.muenchen.refarch.theentity.dto.BatchItemStatus;
+import de.muenchen.refarch.theentity.dto.TheEntityBatchResultDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service for writing many {@link TheEntity} at once.
+ * <p>
+ * The items are written in chunks of {@link TheEntityProperties#getBatchChunkSize()}, each chunk within
+ * its own transaction. Statements of a chunk are sent via JDBC batching, and the persistence context
+ * is cleared after each chunk. The result contains one entry per item in the order of the input.
+ * If a chunk fails, all of its items are reported as {@link BatchItemStatus#FAILED}, the cause is
+ * only logged. Requests with more than {@link TheEntityProperties#getBatchMaxItems()} items are
+ * rejected with {@link BadRequestException}. Written
+ * entities are evicted from the {@link TheEntityCache} after the commit of their chunk.
+ * </p>
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class TheEntityBatchService {
+
+    private static final String MESSAGE_MISSING_ID = "id: must not be null";
+
+    private final TheEntityRepository theEntityRepository;
+    private final TheEntityProperties theEntityProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final TheEntityCache theEntityCache;
+
+    @PreAuthorize(Authorities.THEENTITY_CREATE)
+    public List<TheEntityBatchResultDTO> createTheEntities(final List<TheEntity> entities) {
+        log.info("Create {} TheEntity in batch", entities.size());
+        checkSize(entities.size());
+        final TheEntityBatchResultDTO[] results = new TheEntityBatchResultDTO[entities.size()];
+        final List<Integer> validIndices = validate(results, entities, false);
+        processInChunks(validIndices, results, index -> null, chunk -> {
+            theEntityRepository.saveAll(chunk.stream().map(entities::get).toList());
+            theEntityCache.evict(chunk.stream().map(index -> entities.get(index).getId()).toList());
+            chunk.forEach(index -> results[index] = new TheEntityBatchResultDTO(index, entities.get(index).getId(), BatchItemStatus.CREATED, null));
+        });
+        return Arrays.asList(results);
+    }
+
+    @PreAuthorize(Authorities.THEENTITY_UPDATE)
+    public List<TheEntityBatchResultDTO> updateTheEntities(final List<TheEntity> entities) {
+        log.info("Update {} TheEntity in batch", entities.size());
+        checkSize(entities.size());
+        final TheEntityBatchResultDTO[] results = new TheEntityBatchResultDTO[entities.size()];
+        final List<Integer> validIndices = validate(results, entities, true);
+        processInChunks(validIndices, results, index -> entities.get(index).getId(), chunk -> {
+            final Map<UUID, TheEntity> foundEntities = findAllById(chunk.stream().map(index -> entities.get(index).getId()).toList());
+            chunk.forEach(index -> {
+                final TheEntity entity = entities.get(index);
+                final TheEntity foundEntity = foundEntities.get(entity.getId());
+                if (foundEntity == null) {
+                    results[index] = new TheEntityBatchResultDTO(index, entity.getId(), BatchItemStatus.NOT_FOUND, null);
+                } else {
+                    foundEntity.setTextAttribute(entity.getTextAttribute());
+                    results[index] = new TheEntityBatchResultDTO(index, entity.getId(), BatchItemStatus.UPDATED, null);
+                }
+            });
+            theEntityCache.evict(foundEntities.keySet());
+        });
+        return Arrays.asList(results);
+    }
+
+    @PreAuthorize(Authorities.THEENTITY_DELETE)
+    public List<TheEntityBatchResultDTO> deleteTheEntities(final List<UUID> theEntityIds) {
+        log.info("Delete {} TheEntity in batch", theEntityIds.size());
+        checkSize(theEntityIds.size());
+        final TheEntityBatchResultDTO[] results = new TheEntityBatchResultDTO[theEntityIds.size()];
+        final List<Integer> validIndices = new ArrayList<>(theEntityIds.size());
+        for (int index = 0; index < theEntityIds.size(); index++) {
+            if (theEntityIds.get(index) == null) {
+                results[index] = new TheEntityBatchResultDTO(index, null, BatchItemStatus.INVALID, MESSAGE_MISSING_ID);
+            } else {
+                validIndices.add(index);
+            }
+        }
+        processInChunks(validIndices, results, theEntityIds::get, chunk -> {
+            final Map<UUID, TheEntity> foundEntities = findAllById(chunk.stream().map(theEntityIds::get).toList());
+            theEntityRepository.deleteAll(foundEntities.values());
+            theEntityCache.evict(foundEntities.keySet());
+            chunk.forEach(index -> {
+                final UUID theEntityId = theEntityIds.get(index);
+                final BatchItemStatus status = foundEntities.containsKey(theEntityId) ? BatchItemStatus.DELETED : BatchItemStatus.NOT_FOUND;
+                results[index] = new TheEntityBatchResultDTO(index, theEntityId, status, null);
+            });
+        });
+        return Arrays.asList(results);
+    }
+
+    private void checkSize(final int size) {
+        if (size > theEntityProperties.getBatchMaxItems()) {
+            throw new BadRequestException(String.format(MSG_BATCH_TOO_LARGE, size, theEntityProperties.getBatchMaxItems()));
+        }
+    }
+
+    /**
+     * @param requireId whether the id of the entities must be set, which isn't a constraint of
+     *            {@link TheEntity}
+     */
+    private List<Integer> validate(final TheEntityBatchResultDTO[] results, final List<TheEntity> entities, final boolean requireId) {
+        final List<Integer> validIndices = new ArrayList<>(entities.size());
+        for (int index = 0; index < entities.size(); index++) {
+            final TheEntity entity = entities.get(index);
+            if (entity == null) {
+                results[index] = new TheEntityBatchResultDTO(index, null, BatchItemStatus.INVALID, "must not be null");
+                continue;
+            }
+            final Set<ConstraintViolation<TheEntity>> violations = validator.validate(entity);
+            final boolean missingId = requireId && entity.getId() == null;
+            if (violations.isEmpty() && !missingId) {
+                validIndices.add(index);
+            } else {
+                final String message = Stream.concat(
+                        violations.stream().map(violation -> violation.getPropertyPath() + ": " + violation.getMessage()),
+                        missingId ? Stream.of(MESSAGE_MISSING_ID) : Stream.empty())
+                        .sorted()
+                        .collect(Collectors.joining(", "));
+                results[index] = new TheEntityBatchResultDTO(index, entity.getId(), BatchItemStatus.INVALID, message);
+            }
+        }
+        return validIndices;
+    }
+
+    private Map<UUID, TheEntity> findAllById(final List<UUID> theEntityIds) {
+        final Map<UUID, TheEntity> foundEntities = new HashMap<>();
+        theEntityRepository.findAllById(theEntityIds).forEach(entity -> foundEntities.put(entity.getId(), entity));
+        return foundEntities;
+    }
+
+    private void processInChunks(final List<Integer> indices, final TheEntityBatchResultDTO[] results, final IntFunction<UUID> idOfFailedItem,
+            final Consumer<List<Integer>> chunkProcessor) {
+        final int chunkSize = theEntityProperties.getBatchChunkSize();
+        for (int start = 0; start < indices.size(); start += chunkSize) {
+            final List<Integer> chunk = indices.subList(start, Math.min(start + chunkSize, indices.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    chunkProcessor.accept(chunk);
+                    entityManager.flush();
+                });
+            } catch (final DataAccessException | PersistenceException | TransactionException e) {
+                log.warn("Batch chunk of {} TheEntity failed and was rolled back", chunk.size(), e);
+                // the exception message may expose SQL, constraint names or values, so it is only logged
+                chunk.forEach(index -> results[index] = new TheEntityBatchResultDTO(index, idOfFailedItem.apply(index), BatchItemStatus.FAILED,
+                        MSG_BATCH_CHUNK_FAILED));
+            } finally {
+                entityManager.clear();
+            }
+        }
+    }
+}
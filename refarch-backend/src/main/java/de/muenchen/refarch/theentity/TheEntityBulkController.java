@@ -0,0 +1,98 @@
+package de.muenchen.refarch.theentity;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import de.muenchen.refarch.theentity.dto.ImportFormat;
+import de.muenchen.refarch.theentity.dto.TheEntityBatchResultDTO;
+import de.muenchen.refarch.theentity.dto.TheEntityBatchUpdateDTO;
+import de.muenchen.refarch.theentity.dto.TheEntityImportResultDTO;
+import de.muenchen.refarch.theentity.dto.TheEntityMapper;
+import de.muenchen.refarch.theentity.dto.TheEntityRequestDTO;
+import de.muenchen.refarch.theentity.dto.TheEntityResponseDTO;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Endpoints for reading and writing many TheEntity at once.
+ */
+@RestController
+@Slf4j
+@RequiredArgsConstructor
+@RequestMapping("/theEntity")
+public class TheEntityBulkController {
+
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
+    private final TheEntityService theEntityService;
+    private final TheEntityBatchService theEntityBatchService;
+    private final TheEntityImportService theEntityImportService;
+    private final TheEntityMapper theEntityMapper;
+    private final ObjectMapper objectMapper;
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public void exportTheEntities(final HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        final ObjectWriter objectWriter = objectMapper.writerFor(TheEntityResponseDTO.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.createGenerator(response.getOutputStream())) {
+            generator.setRootValueSeparator(null);
+            theEntityService.exportTheEntities(entity -> {
+                try {
+                    objectWriter.writeValue(generator, theEntityMapper.toDTO(entity));
+                    generator.writeRaw('\n');
+                } catch (final IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    @PostMapping("/batch")
+    @ResponseStatus(HttpStatus.OK)
+    public List<TheEntityBatchResultDTO> saveTheEntities(@RequestBody final List<TheEntityRequestDTO> theEntityRequestDTOs) {
+        return theEntityBatchService.createTheEntities(theEntityRequestDTOs.stream().map(theEntityMapper::toEntity).toList());
+    }
+
+    @PutMapping("/batch")
+    @ResponseStatus(HttpStatus.OK)
+    public List<TheEntityBatchResultDTO> updateTheEntities(@RequestBody final List<TheEntityBatchUpdateDTO> theEntityBatchUpdateDTOs) {
+        return theEntityBatchService.updateTheEntities(theEntityBatchUpdateDTOs.stream().map(theEntityMapper::toEntity).toList());
+    }
+
+    @DeleteMapping("/batch")
+    @ResponseStatus(HttpStatus.OK)
+    public List<TheEntityBatchResultDTO> deleteTheEntities(@RequestBody final List<UUID> theEntityIds) {
+        return theEntityBatchService.deleteTheEntities(theEntityIds);
+    }
+
+    @PostMapping(value = "/import", consumes = TEXT_CSV_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public TheEntityImportResultDTO importTheEntitiesFromCsv(final InputStream body) {
+        return theEntityImportService.importTheEntities(body, ImportFormat.CSV);
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @ResponseStatus(HttpStatus.OK)
+    public TheEntityImportResultDTO importTheEntitiesFromNdjson(final InputStream body) {
+        return theEntityImportService.importTheEntities(body, ImportFormat.NDJSON);
+    }
+
+}
@@ -0,0 +1,166 @@
+package de.muenchen.refarch.theentity;
+
+import de.muenchen.refarch.theentity.dto.TheEntityResponseDTO;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Invalidation of the read-through cache and of the Hibernate second-level and query cache of
+ * {@link TheEntity}.
+ * <p>
+ * Entries are evicted locally and a PostgreSQL notification is sent on {@link #CHANNEL}, so that
+ * other instances evict them too, see {@link TheEntityCacheInvalidationListener}. Within a
+ * transaction the notification is delivered on commit and the local entries are evicted after
+ * the commit, so that concurrent reads cannot cache the old state again in between. If the
+ * transaction is rolled back, nothing is evicted. As the query cache of other instances
+ * does not notice changes, creations have to be notified as well. Instead of clearing the query
+ * cache, only the query space {@link #QUERY_SPACE} is invalidated, which makes all cached queries
+ * on {@code the_entity} stale.
+ * </p>
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class TheEntityCache {
+
+    /**
+     * Name of the cache holding the {@link TheEntityResponseDTO} of {@link TheEntity} by id.
+     */
+    public static final String CACHE_NAME = "theEntity";
+
+    /**
+     * Channel of the PostgreSQL notifications. The payload is the id of the changed entity
+     * or {@link #ALL} if all entries are to be evicted.
+     */
+    public static final String CHANNEL = "the_entity_changed";
+
+    /**
+     * Payload for evicting all entries.
+     */
+    public static final String ALL = "*";
+
+    /**
+     * Query space of {@link TheEntity}, i.e. its table.
+     */
+    public static final String QUERY_SPACE = "the_entity";
+
+    private static final String NOTIFY_STATEMENT = "select pg_notify(?, payload) from unnest(?) as payload";
+
+    private final CacheManager cacheManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Evicts the given entities on all instances.
+     *
+     * @param theEntityIds ids of the changed entities
+     */
+    public void evict(final Collection<UUID> theEntityIds) {
+        if (theEntityIds.isEmpty()) {
+            return;
+        }
+        log.debug("Evict {} TheEntity from cache", theEntityIds.size());
+        afterCommit(() -> evictLocally(theEntityIds));
+        notify(theEntityIds.stream().map(UUID::toString).toArray(String[]::new));
+    }
+
+    /**
+     * Evicts an entity whose notification was already sent by the statement changing it, see
+     * {@link TheEntityRepository#updateReturning(UUID, String, Long)}.
+     *
+     * @param theEntityId id of the changed entity
+     */
+    public void evictNotified(final UUID theEntityId) {
+        log.debug("Evict TheEntity with ID {} from cache", theEntityId);
+        afterCommit(() -> evictLocally(List.of(theEntityId)));
+    }
+
+    /**
+     * Evicts all entities on all instances.
+     */
+    public void evictAll() {
+        log.debug("Evict all TheEntity from cache");
+        afterCommit(this::evictAllLocally);
+        notify(ALL);
+    }
+
+    /**
+     * Evicts the given entity on this instance only.
+     *
+     * @param payload payload of a notification
+     */
+    /* default */ void evictLocally(final String payload) {
+        if (ALL.equals(payload)) {
+            evictAllLocally();
+        } else {
+            evictLocally(List.of(UUID.fromString(payload)));
+        }
+    }
+
+    /**
+     * Evicts all entities on this instance only.
+     */
+    /* default */ void evictAllLocally() {
+        getCache().clear();
+        entityManagerFactory.getCache().evict(TheEntity.class);
+        invalidateQuerySpace();
+    }
+
+    private void evictLocally(final Collection<UUID> theEntityIds) {
+        theEntityIds.forEach(theEntityId -> {
+            getCache().evict(theEntityId);
+            entityManagerFactory.getCache().evict(TheEntity.class, theEntityId);
+        });
+        invalidateQuerySpace();
+    }
+
+    /**
+     * Marks the cached results of all queries on {@link #QUERY_SPACE} as stale. Hibernate does this
+     * itself for its own statements on this instance, but not for native statements returning rows
+     * or for changes made by other instances.
+     */
+    private void invalidateQuerySpace() {
+        final SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        // the session is only needed for statistics and events, it does not acquire a connection
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            sessionFactory.getCache().getTimestampsCache().invalidate(new String[] { QUERY_SPACE }, (SharedSessionContractImplementor) session);
+        }
+    }
+
+    private static void afterCommit(final Runnable eviction) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        } else {
+            eviction.run();
+        }
+    }
+
+    private void notify(final String... payloads) {
+        jdbcTemplate.query(NOTIFY_STATEMENT, resultSet -> {
+            // pg_notify returns void
+        }, CHANNEL, payloads);
+    }
+
+    private Cache getCache() {
+        return Objects.requireNonNull(cacheManager.getCache(CACHE_NAME), "Cache " + CACHE_NAME + " is not configured");
+    }
+}
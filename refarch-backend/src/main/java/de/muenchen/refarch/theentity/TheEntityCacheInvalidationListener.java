@@ -0,0 +1,99 @@
+package de.muenchen.refarch.theentity;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.scheduling.concurrent.SimpleAsyncTaskScheduler;
+import org.springframework.stereotype.Component;
+
+/**
+ * Listens on a dedicated database connection for the notifications sent by {@link TheEntityCache}
+ * and evicts the notified entities from the local cache.
+ * <p>
+ * Notifications sent while the connection is down are lost, so the whole cache is cleared whenever
+ * the connection is (re-)established. After losing the connection the listener reconnects after
+ * {@link TheEntityProperties#getCacheInvalidationRetryDelay()}.
+ * </p>
+ */
+@Component
+@Slf4j
+public class TheEntityCacheInvalidationListener implements SmartLifecycle {
+
+    private static final int POLL_TIMEOUT_MILLIS = 1000;
+
+    private final DataSource dataSource;
+    private final TheEntityCache theEntityCache;
+    private final TheEntityProperties theEntityProperties;
+    private final SimpleAsyncTaskScheduler taskScheduler = new SimpleAsyncTaskScheduler();
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public TheEntityCacheInvalidationListener(final JdbcConnectionDetails jdbcConnectionDetails, final TheEntityCache theEntityCache,
+            final TheEntityProperties theEntityProperties) {
+        // own connection outside the pool, as it is held as long as the application runs
+        this.dataSource = DataSourceBuilder.create()
+                .type(SimpleDriverDataSource.class)
+                .driverClassName(jdbcConnectionDetails.getDriverClassName())
+                .url(jdbcConnectionDetails.getJdbcUrl())
+                .username(jdbcConnectionDetails.getUsername())
+                .password(jdbcConnectionDetails.getPassword())
+                .build();
+        this.theEntityCache = theEntityCache;
+        this.theEntityProperties = theEntityProperties;
+        this.taskScheduler.setThreadNamePrefix("the-entity-cache-invalidation-");
+    }
+
+    @Override
+    public void start() {
+        running.set(true);
+        taskScheduler.scheduleWithFixedDelay(this::listen, theEntityProperties.getCacheInvalidationRetryDelay());
+    }
+
+    @Override
+    public void stop() {
+        running.set(false);
+        taskScheduler.close();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * Listens until the connection fails or the listener is stopped.
+     */
+    private void listen() {
+        try (Connection connection = dataSource.getConnection()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN " + TheEntityCache.CHANNEL);
+            }
+            log.info("Listening for invalidations of TheEntity cache");
+            theEntityCache.evictAllLocally();
+            final PGConnection pgConnection = connection.unwrap(PGConnection.class);
+            while (running.get()) {
+                evict(pgConnection.getNotifications(POLL_TIMEOUT_MILLIS));
+            }
+        } catch (final SQLException | IllegalArgumentException e) {
+            log.warn("Listening for invalidations of TheEntity cache failed, retrying in {}",
+                    theEntityProperties.getCacheInvalidationRetryDelay(), e);
+            theEntityCache.evictAllLocally();
+        }
+    }
+
+    private void evict(final PGNotification... notifications) {
+        if (notifications != null) {
+            for (final PGNotification notification : notifications) {
+                theEntityCache.evictLocally(notification.getParameter());
+            }
+        }
+    }
+}
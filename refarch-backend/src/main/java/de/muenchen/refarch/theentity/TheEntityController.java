@@ -1,22 +1,39 @@
 package de.muenchen.refarch.theentity;
 
+import de.muenchen.refarch.common.ConflictException;
+import de.muenchen.refarch.common.ContinuationToken;
+import de.muenchen.refarch.common.ETags;
+import de.muenchen.refarch.common.KeysetPageDTO;
+import de.muenchen.refarch.common.PagingMode;
+import de.muenchen.refarch.common.PreconditionFailedException;
+import de.muenchen.refarch.common.SliceDTO;
 import de.muenchen.refarch.theentity.dto.TheEntityMapper;
+import de.muenchen.refarch.theentity.dto.TheEntityPatchDTO;
 import de.muenchen.refarch.theentity.dto.TheEntityRequestDTO;
 import de.muenchen.refarch.theentity.dto.TheEntityResponseDTO;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -28,22 +45,71 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/theEntity")
 public class TheEntityController {
 
+    /**
+     * Cache control for responses with an {@link HttpHeaders#ETAG}. The responses may be stored by
+     * the client, but must be revalidated via {@link HttpHeaders#IF_NONE_MATCH} before each use.
+     */
+    private static final CacheControl CONDITIONAL_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+    /**
+     * Maximum number of entities of a page.
+     */
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final TheEntityService theEntityService;
     private final TheEntityMapper theEntityMapper;
 
     @GetMapping("{theEntityID}")
-    @ResponseStatus(HttpStatus.OK)
-    public TheEntityResponseDTO getTheEntity(@PathVariable("theEntityID") final UUID theEntityId) {
-        return theEntityMapper.toDTO(theEntityService.getTheEntity(theEntityId));
+    public ResponseEntity<TheEntityResponseDTO> getTheEntity(@PathVariable("theEntityID") final UUID theEntityId) {
+        final TheEntityResponseDTO theEntityResponseDTO = theEntityService.getTheEntityResponse(theEntityId);
+        return ResponseEntity.ok()
+                .eTag(ETags.ofVersion(theEntityResponseDTO.version()))
+                .cacheControl(CONDITIONAL_CACHE_CONTROL)
+                .body(theEntityResponseDTO);
     }
 
     @GetMapping
-    @ResponseStatus(HttpStatus.OK)
-    public Page<TheEntityResponseDTO> getTheEntitiesByPageAndSize(@RequestParam(defaultValue = "0") final int pageNumber,
-            @RequestParam(defaultValue = "10") final int pageSize) {
-        final Page<TheEntity> pageWithEntity = theEntityService.getAllEntities(pageNumber, pageSize);
-        final List<TheEntityResponseDTO> theEntityRequestDTOList = pageWithEntity.getContent().stream().map(theEntityMapper::toDTO).toList();
-        return new PageImpl<>(theEntityRequestDTOList, pageWithEntity.getPageable(), pageWithEntity.getTotalElements());
+    public ResponseEntity<Page<TheEntityResponseDTO>> getTheEntitiesByPageAndSize(@RequestParam(defaultValue = "0") @Min(0) final int pageNumber,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(MAX_PAGE_SIZE) final int pageSize, @RequestParam(defaultValue = "EXACT") final PagingMode pagingMode) {
+        final Page<TheEntityResponseDTO> page = theEntityService.getAllEntityResponses(pageNumber, pageSize, pagingMode);
+        // an estimated total, and whether there is a next page as derived from it, changes with the planner statistics,
+        // e.g. after ANALYZE, without any change of the page
+        final String eTag = pagingMode == PagingMode.ESTIMATED
+                ? eTagOf(page.getContent(), pagingMode.name(), Integer.toString(pageNumber), Integer.toString(pageSize))
+                : eTagOf(page.getContent(), pagingMode.name(), Integer.toString(pageNumber), Integer.toString(pageSize),
+                        Long.toString(page.getTotalElements()));
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CONDITIONAL_CACHE_CONTROL)
+                .body(page);
+    }
+
+    /**
+     * Reads a page without any count query, the response only tells whether there is a next page.
+     */
+    @GetMapping(params = "pagingMode=SLICE")
+    public ResponseEntity<SliceDTO<TheEntityResponseDTO>> getTheEntitiesBySlice(@RequestParam(defaultValue = "0") @Min(0) final int pageNumber,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(MAX_PAGE_SIZE) final int pageSize) {
+        final Slice<TheEntityResponseDTO> slice = theEntityService.getEntityResponseSlice(pageNumber, pageSize);
+        final String eTag = eTagOf(slice.getContent(), PagingMode.SLICE.name(), Integer.toString(pageNumber), Integer.toString(pageSize),
+                Boolean.toString(slice.hasNext()));
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CONDITIONAL_CACHE_CONTROL)
+                .body(new SliceDTO<>(slice.getContent(), pageNumber, pageSize, slice.hasNext()));
+    }
+
+    @GetMapping("/keyset")
+    public ResponseEntity<KeysetPageDTO<TheEntityResponseDTO>> getTheEntitiesByKeyset(@RequestParam(required = false) final String continuationToken,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(MAX_PAGE_SIZE) final int pageSize) {
+        final UUID lastSeenId = continuationToken == null ? null : ContinuationToken.decode(continuationToken);
+        final Window<TheEntityResponseDTO> window = theEntityService.getEntityResponsesAfter(lastSeenId, pageSize);
+        final String nextContinuationToken = window.hasNext() ? ContinuationToken.encode(window.getContent().getLast().id()) : null;
+        final String eTag = eTagOf(window.getContent(), String.valueOf(lastSeenId), Integer.toString(pageSize), Boolean.toString(window.hasNext()));
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CONDITIONAL_CACHE_CONTROL)
+                .body(new KeysetPageDTO<>(window.getContent(), window.hasNext(), nextContinuationToken));
     }
 
     @PostMapping
@@ -52,17 +118,67 @@ public class TheEntityController {
         return theEntityMapper.toDTO(theEntityService.createTheEntity(theEntityMapper.toEntity(theEntityRequestDTO)));
     }
 
+    /**
+     * Replaces the text attribute of an entity. If an {@link HttpHeaders#IF_MATCH} header with the
+     * {@link HttpHeaders#ETAG} of the entity is given, the entity is only updated if it was not
+     * modified in the meantime, otherwise 412 (Precondition Failed) is returned.
+     */
     @PutMapping("/{theEntityId}")
-    @ResponseStatus(HttpStatus.OK)
-    public TheEntityResponseDTO updateTheEntity(@Valid @RequestBody final TheEntityRequestDTO theEntityRequestDTO,
-            @PathVariable("theEntityId") final UUID theEntityId) {
-        return theEntityMapper.toDTO(theEntityService.updateTheEntity(theEntityMapper.toEntity(theEntityRequestDTO), theEntityId));
+    public ResponseEntity<TheEntityResponseDTO> updateTheEntity(@Valid @RequestBody final TheEntityRequestDTO theEntityRequestDTO,
+            @PathVariable("theEntityId") final UUID theEntityId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) final String ifMatch) {
+        return updateTheEntity(theEntityMapper.toEntity(theEntityRequestDTO), theEntityId, ifMatch);
+    }
+
+    /**
+     * Updates the given attributes of an entity. The expected version can be given either in the
+     * body or via an {@link HttpHeaders#IF_MATCH} header, the header takes precedence.
+     */
+    @PatchMapping("/{theEntityId}")
+    public ResponseEntity<TheEntityResponseDTO> patchTheEntity(@Valid @RequestBody final TheEntityPatchDTO theEntityPatchDTO,
+            @PathVariable("theEntityId") final UUID theEntityId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) final String ifMatch) {
+        return updateTheEntity(theEntityMapper.toEntity(theEntityPatchDTO), theEntityId, ifMatch);
     }
 
+    /**
+     * Deletes an entity. If an {@link HttpHeaders#IF_MATCH} header with the {@link HttpHeaders#ETAG}
+     * of the entity is given, the entity is only deleted if it was not modified in the meantime,
+     * otherwise 412 (Precondition Failed) is returned.
+     */
     @DeleteMapping("/{theEntityId}")
     @ResponseStatus(HttpStatus.OK)
-    public void deleteTheEntity(@PathVariable("theEntityId") final UUID theEntityId) {
-        theEntityService.deleteTheEntity(theEntityId);
+    public void deleteTheEntity(@PathVariable("theEntityId") final UUID theEntityId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) final String ifMatch) {
+        final Long expectedVersion = ETags.parseVersion(ifMatch);
+        try {
+            theEntityService.deleteTheEntity(theEntityId, expectedVersion);
+        } catch (final ConflictException e) {
+            throw new PreconditionFailedException(e.getReason(), e);
+        }
+    }
+
+    private ResponseEntity<TheEntityResponseDTO> updateTheEntity(final TheEntity theEntity, final UUID theEntityId, final String ifMatch) {
+        final Long expectedVersion = ETags.parseVersion(ifMatch);
+        if (expectedVersion != null) {
+            theEntity.setVersion(expectedVersion);
+        }
+        final TheEntity updatedEntity;
+        try {
+            updatedEntity = theEntityService.updateTheEntity(theEntity, theEntityId);
+        } catch (final ConflictException e) {
+            if (expectedVersion == null) {
+                throw e;
+            }
+            throw new PreconditionFailedException(e.getReason(), e);
+        }
+        return ResponseEntity.ok()
+                .eTag(ETags.ofVersion(updatedEntity.getVersion()))
+                .body(theEntityMapper.toDTO(updatedEntity));
+    }
+
+    private static String eTagOf(final List<TheEntityResponseDTO> responses, final String... pageParts) {
+        return ETags.ofContent(Stream.concat(Stream.of(pageParts), responses.stream().map(response -> response.id() + ":" + response.version())));
     }
 
 }
@@ -0,0 +1,174 @@
+package de.muenchen.refarch.theentity;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.muenchen.refarch.configuration.nfcconverter.NfcHelper;
+import de.muenchen.refarch.security.Authorities;
+import de.muenchen.refarch.theentity.dto.ImportFormat;
+import de.muenchen.refarch.theentity.dto.TheEntityImportRejectionDTO;
+import de.muenchen.refarch.theentity.dto.TheEntityImportResultDTO;
+import de.muenchen.refarch.theentity.dto.TheEntityRequestDTO;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service for importing large amounts of {@link TheEntity}.
+ * <p>
+ * The uploaded lines are parsed, NFC normalized and validated one by one and streamed into
+ * {@code the_entity} via the PostgreSQL {@code COPY} protocol without instantiating entities.
+ * Invalid lines are skipped and reported, all valid lines are imported within one transaction.
+ * </p>
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class TheEntityImportService {
+
+    /* default */ static final String COPY_STATEMENT = "COPY the_entity (id, text_attribute) FROM STDIN (FORMAT csv)";
+
+    private static final String CSV_HEADER = "textAttribute";
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+    private static final char QUOTE = '"';
+    private static final String ESCAPED_QUOTE = "\"\"";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TheEntityProperties theEntityProperties;
+    private final TheEntityCache theEntityCache;
+
+    @PreAuthorize(Authorities.THEENTITY_CREATE)
+    @Transactional
+    public TheEntityImportResultDTO importTheEntities(final InputStream input, final ImportFormat format) {
+        log.info("Import TheEntity from {}", format);
+        return jdbcTemplate.execute((ConnectionCallback<TheEntityImportResultDTO>) connection -> copy(connection, input, format));
+    }
+
+    private TheEntityImportResultDTO copy(final Connection connection, final InputStream input, final ImportFormat format) throws SQLException {
+        final CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_STATEMENT);
+        final List<TheEntityImportRejectionDTO> rejections = new ArrayList<>();
+        long rejected = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            final StringBuilder rows = new StringBuilder(COPY_BUFFER_SIZE + 64);
+            long lineNumber = 0;
+            String line = reader.readLine();
+            while (line != null) {
+                lineNumber++;
+                final ParsedLine parsedLine = parse(line, lineNumber, format);
+                if (parsedLine.error() != null) {
+                    rejected++;
+                    if (rejections.size() < theEntityProperties.getImportMaxReportedRejections()) {
+                        rejections.add(new TheEntityImportRejectionDTO(lineNumber, parsedLine.error()));
+                    }
+                } else if (parsedLine.textAttribute() != null) {
+                    appendRow(rows, parsedLine.textAttribute());
+                    if (rows.length() >= COPY_BUFFER_SIZE) {
+                        writeToCopy(copyIn, rows);
+                    }
+                }
+                line = reader.readLine();
+            }
+            writeToCopy(copyIn, rows);
+            final long imported = copyIn.endCopy();
+            // the rows are written bypassing Hibernate, so cached query results are outdated after the commit
+            theEntityCache.evictAll();
+            log.info("Imported {} TheEntity, rejected {} lines", imported, rejected);
+            return new TheEntityImportResultDTO(imported, rejected, rejections);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    /**
+     * Parses and validates a single line.
+     *
+     * @return the normalized text attribute, an error or neither if the line is to be skipped
+     */
+    private ParsedLine parse(final String line, final long lineNumber, final ImportFormat format) {
+        if (line.isBlank()) {
+            return new ParsedLine(null, null);
+        }
+        final ParsedLine parsedLine = switch (format) {
+        case CSV -> parseCsv(line);
+        case NDJSON -> parseJson(line);
+        };
+        if (parsedLine.error() != null) {
+            return parsedLine;
+        }
+        if (format == ImportFormat.CSV && lineNumber == 1 && CSV_HEADER.equalsIgnoreCase(parsedLine.textAttribute())) {
+            return new ParsedLine(null, null);
+        }
+        final String textAttribute = NfcHelper.nfcConverter(parsedLine.textAttribute());
+        final Set<ConstraintViolation<TheEntityRequestDTO>> violations = validator.validate(new TheEntityRequestDTO(textAttribute));
+        if (!violations.isEmpty()) {
+            return new ParsedLine(null, violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+        return new ParsedLine(textAttribute, null);
+    }
+
+    private static ParsedLine parseCsv(final String line) {
+        if (line.length() >= 2 && line.charAt(0) == QUOTE && line.charAt(line.length() - 1) == QUOTE) {
+            final String quotedValue = line.substring(1, line.length() - 1);
+            if (quotedValue.replace(ESCAPED_QUOTE, "").indexOf(QUOTE) < 0) {
+                return new ParsedLine(quotedValue.replace(ESCAPED_QUOTE, String.valueOf(QUOTE)), null);
+            }
+        } else if (line.indexOf(',') < 0 && line.indexOf(QUOTE) < 0) {
+            return new ParsedLine(line, null);
+        }
+        return new ParsedLine(null, "expected exactly one column");
+    }
+
+    private ParsedLine parseJson(final String line) {
+        try {
+            final TheEntityRequestDTO requestDTO = objectMapper.readValue(line, TheEntityRequestDTO.class);
+            return requestDTO == null ? new ParsedLine(null, "expected JSON object") : new ParsedLine(requestDTO.textAttribute(), null);
+        } catch (final JsonProcessingException e) {
+            return new ParsedLine(null, "invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private static void appendRow(final StringBuilder rows, final String textAttribute) {
+        rows.append(UUID.randomUUID()).append(',').append(QUOTE).append(textAttribute.replace(String.valueOf(QUOTE), ESCAPED_QUOTE)).append(QUOTE)
+                .append('\n');
+    }
+
+    private static void writeToCopy(final CopyIn copyIn, final StringBuilder rows) throws SQLException {
+        if (!rows.isEmpty()) {
+            final byte[] bytes = rows.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            rows.setLength(0);
+        }
+    }
+
+    private record ParsedLine(String textAttribute, String error) {
+    }
+}
@@ -0,0 +1,46 @@
+package de.muenchen.refarch.theentity;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Properties class that holds configuration data relevant for the handling of {@link TheEntity}
+ */
+@ConfigurationProperties(prefix = "theentity")
+@Validated
+@Data
+public class TheEntityProperties {
+    /**
+     * Number of entities written within one transaction by the batch operations, see also
+     * {@link TheEntityBatchService}. Should be a multiple of the JDBC batch size configured via
+     * {@code spring.jpa.properties.hibernate.jdbc.batch_size}.
+     */
+    @Positive
+    private int batchChunkSize = 500;
+
+    /**
+     * Maximum number of items of a single request to the batch operations, see also
+     * {@link TheEntityBatchService}. Larger requests are rejected as a whole.
+     */
+    @Positive
+    private int batchMaxItems = 10_000;
+
+    /**
+     * Maximum number of rejected lines listed in the result of an import, see also
+     * {@link TheEntityImportService}. Further rejected lines are only counted.
+     */
+    @PositiveOrZero
+    private int importMaxReportedRejections = 100;
+
+    /**
+     * Delay before the listener for cache invalidations reconnects after losing its database
+     * connection, see also {@link TheEntityCacheInvalidationListener}.
+     */
+    @NotNull
+    private Duration cacheInvalidationRetryDelay = Duration.ofSeconds(5);
+}
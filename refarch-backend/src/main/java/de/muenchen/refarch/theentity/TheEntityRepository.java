@@ -1,11 +1,140 @@
 package de.muenchen.refarch.theentity;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_MODE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_NATIVE_SPACES;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+import de.muenchen.refarch.theentity.dto.TheEntityResponseDTO;
+import jakarta.persistence.QueryHint;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
+@SuppressWarnings("PMD.AvoidDuplicateLiterals")
 public interface TheEntityRepository extends PagingAndSortingRepository<TheEntity, UUID>, CrudRepository<TheEntity, UUID> {
 
+    /**
+     * Constructor expression selecting {@link TheEntityResponseDTO} directly from the columns. No
+     * entities are loaded into the persistence context, so there are no snapshots for dirty checking.
+     */
+    String SELECT_RESPONSE = "select new de.muenchen.refarch.theentity.dto.TheEntityResponseDTO(e.id, e.textAttribute, e.version) from TheEntity e";
+
+    /**
+     * Reads a single entity directly into its response without materializing the entity.
+     *
+     * @param id id of the entity
+     * @return the response, empty if no entity with the id exists
+     */
+    @Query(SELECT_RESPONSE + " where e.id = :id")
+    Optional<TheEntityResponseDTO> findResponseById(@Param("id") UUID id);
+
+    /**
+     * Paged projection query with count query.
+     *
+     * @param pageable the page to read
+     * @return page of responses
+     */
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Query(value = SELECT_RESPONSE, countQuery = "select count(e) from TheEntity e")
+    Page<TheEntityResponseDTO> findAllResponses(Pageable pageable);
+
+    /**
+     * Paged projection query without count query.
+     *
+     * @param pageable the page to read
+     * @return slice of responses
+     */
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Query(SELECT_RESPONSE)
+    Slice<TheEntityResponseDTO> findResponsesBy(Pageable pageable);
+
+    /**
+     * Keyset projection query for the first window, ordered by the primary key.
+     *
+     * @param limit maximum number of responses
+     * @return responses
+     */
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Query(SELECT_RESPONSE + " order by e.id")
+    List<TheEntityResponseDTO> findResponsesOrderedById(Limit limit);
+
+    /**
+     * Keyset projection query for the windows after the first one, ordered by the primary key.
+     *
+     * @param lastSeenId id of the last response of the previous window
+     * @param limit maximum number of responses
+     * @return responses
+     */
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Query(SELECT_RESPONSE + " where e.id > :lastSeenId order by e.id")
+    List<TheEntityResponseDTO> findResponsesOrderedByIdAfter(@Param("lastSeenId") UUID lastSeenId, Limit limit);
+
+    /**
+     * Reads the estimated number of rows of {@code the_entity} from the planner statistics.
+     *
+     * @return estimated number of rows, negative if the table was not analyzed yet
+     */
+    @Query(value = "select cast(reltuples as bigint) from pg_class where oid = to_regclass('the_entity')", nativeQuery = true)
+    Long estimateCount();
+
+    /**
+     * Updates an entity with a single {@code UPDATE ... RETURNING} statement, without loading it
+     * first. The version is incremented and a notification for {@link TheEntityCache} is sent within
+     * the same statement. The second-level cache is not updated, the entity has to be evicted via
+     * {@link TheEntityCache#evictNotified(UUID)}.
+     *
+     * @param id id of the entity
+     * @param textAttribute new text attribute, {@code null} to keep the current one
+     * @param version expected current version, {@code null} to skip the version check
+     * @return the updated entity, empty if no entity with the id and version exists
+     */
+    @Transactional
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = TheEntityCache.QUERY_SPACE))
+    @Query(
+            value = "with updated as (update the_entity set text_attribute = coalesce(cast(:textAttribute as varchar), text_attribute),"
+                    + " version = version + 1 where id = :id and version = coalesce(cast(:version as bigint), version) returning *)"
+                    + " select updated.* from updated, pg_notify('" + TheEntityCache.CHANNEL + "', cast(updated.id as text))",
+            nativeQuery = true
+    )
+    Optional<TheEntity> updateReturning(@Param("id") UUID id, @Param("textAttribute") String textAttribute, @Param("version") Long version);
+
+    /**
+     * Deletes an entity with a single statement if it still has the expected version.
+     *
+     * @param id id of the entity
+     * @param version expected current version
+     * @return number of deleted entities
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from TheEntity e where e.id = :id and e.version = :version")
+    int deleteByIdAndVersion(@Param("id") UUID id, @Param("version") long version);
+
+    /**
+     * Streams all entities ordered by the primary key. The rows are read via a server-side cursor
+     * in portions of 500 rows and the entities are loaded read-only, bypassing the second-level
+     * cache. Must be called within a transaction and the stream must be closed after use.
+     *
+     * @return stream of all entities
+     */
+    @QueryHints({ @QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE") })
+    Stream<TheEntity> streamAllByOrderByIdAsc();
+
 }
@@ -1,61 +1,205 @@
 package de.muenchen.refarch.theentity;
 
 import static de.muenchen.refarch.common.ExceptionMessageConstants.MSG_NOT_FOUND;
+import static de.muenchen.refarch.common.ExceptionMessageConstants.MSG_VERSION_CONFLICT;
 
+import de.muenchen.refarch.common.ConflictException;
 import de.muenchen.refarch.common.NotFoundException;
+import de.muenchen.refarch.common.PagingMode;
 import de.muenchen.refarch.security.Authorities;
+import de.muenchen.refarch.theentity.dto.TheEntityResponseDTO;
+import jakarta.persistence.EntityManager;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class TheEntityService {
 
+    private static final String KEYSET_PROPERTY = "id";
+
     private final TheEntityRepository theEntityRepository;
+    private final EntityManager entityManager;
+    private final TheEntityCache theEntityCache;
 
+    /**
+     * Reads the response of an entity via a projection, without loading the entity.
+     *
+     * @param theEntityId id of the entity
+     * @return the response
+     */
     @PreAuthorize(Authorities.THEENTITY_GET)
-    public TheEntity getTheEntity(final UUID theEntityId) {
-        log.info("Get TheEntity with ID {}", theEntityId);
-        return getEntityOrThrowException(theEntityId);
+    @Cacheable(cacheNames = TheEntityCache.CACHE_NAME, key = "#theEntityId")
+    @Transactional(readOnly = true)
+    public TheEntityResponseDTO getTheEntityResponse(final UUID theEntityId) {
+        log.info("Get TheEntity response with ID {}", theEntityId);
+        return theEntityRepository.findResponseById(theEntityId)
+                .orElseThrow(() -> new NotFoundException(String.format(MSG_NOT_FOUND, theEntityId)));
     }
 
+    /**
+     * Reads a page of responses via a projection, without loading the entities.
+     *
+     * @param pageNumber number of the page
+     * @param pageSize size of the page
+     * @param pagingMode how the total number of elements is determined, {@link PagingMode#SLICE} is
+     *            not supported as a slice has no total, see {@link #getEntityResponseSlice(int, int)}
+     * @return page of responses
+     */
     @PreAuthorize(Authorities.THEENTITY_GET_ALL)
-    public Page<TheEntity> getAllEntities(final int pageNumber, final int pageSize) {
-        log.info("Get all TheEntity with at Page {} with a PageSize of {}", pageNumber, pageSize);
+    @Transactional(readOnly = true)
+    public Page<TheEntityResponseDTO> getAllEntityResponses(final int pageNumber, final int pageSize, final PagingMode pagingMode) {
+        log.info("Get all TheEntity responses with at Page {} with a PageSize of {} in PagingMode {}", pageNumber, pageSize, pagingMode);
         final Pageable pageRequest = PageRequest.of(pageNumber, pageSize);
-        return theEntityRepository.findAll(pageRequest);
+        return switch (pagingMode) {
+        case EXACT -> theEntityRepository.findAllResponses(pageRequest);
+        case ESTIMATED -> {
+            final Slice<TheEntityResponseDTO> slice = theEntityRepository.findResponsesBy(pageRequest);
+            yield new PageImpl<>(slice.getContent(), pageRequest, Math.max(getEstimatedTotal(), getMinimalTotal(slice)));
+        }
+        case SLICE -> throw new IllegalArgumentException("A slice has no total, use getEntityResponseSlice");
+        };
+    }
+
+    /**
+     * Reads a slice of responses via a projection, without count query. Only one additional
+     * response is read to determine whether there is a next slice.
+     *
+     * @param pageNumber number of the slice
+     * @param pageSize size of the slice
+     * @return slice of responses
+     */
+    @PreAuthorize(Authorities.THEENTITY_GET_ALL)
+    @Transactional(readOnly = true)
+    public Slice<TheEntityResponseDTO> getEntityResponseSlice(final int pageNumber, final int pageSize) {
+        log.info("Get TheEntity responses at Slice {} with a PageSize of {}", pageNumber, pageSize);
+        return theEntityRepository.findResponsesBy(PageRequest.of(pageNumber, pageSize));
+    }
+
+    /**
+     * Reads a keyset window of responses via a projection, without loading the entities.
+     *
+     * @param lastSeenId id of the last response of the previous window, {@code null} for the first window
+     * @param pageSize maximum number of responses of the window
+     * @return window of responses
+     */
+    @PreAuthorize(Authorities.THEENTITY_GET_ALL)
+    @Transactional(readOnly = true)
+    public Window<TheEntityResponseDTO> getEntityResponsesAfter(final UUID lastSeenId, final int pageSize) {
+        log.info("Get all TheEntity responses after ID {} with a PageSize of {}", lastSeenId, pageSize);
+        // one more than requested to know whether there is a next window
+        final Limit limit = Limit.of(pageSize + 1);
+        final List<TheEntityResponseDTO> responses = lastSeenId == null ? theEntityRepository.findResponsesOrderedById(limit)
+                : theEntityRepository.findResponsesOrderedByIdAfter(lastSeenId, limit);
+        final boolean hasNext = responses.size() > pageSize;
+        final List<TheEntityResponseDTO> content = hasNext ? responses.subList(0, pageSize) : responses;
+        return Window.from(content, index -> ScrollPosition.forward(Map.of(KEYSET_PROPERTY, content.get(index).id())), hasNext);
+    }
+
+    /**
+     * Passes all entities one by one to the given consumer. The entities are read via a server-side
+     * cursor and detached after being consumed, so memory usage does not depend on the number of rows.
+     *
+     * @param consumer consumer of the entities, called within a read-only transaction
+     */
+    @PreAuthorize(Authorities.THEENTITY_GET_ALL)
+    @Transactional(readOnly = true)
+    public void exportTheEntities(final Consumer<TheEntity> consumer) {
+        log.info("Export all TheEntity");
+        try (Stream<TheEntity> entities = theEntityRepository.streamAllByOrderByIdAsc()) {
+            entities.forEach(entity -> {
+                consumer.accept(entity);
+                entityManager.detach(entity);
+            });
+        }
     }
 
     @PreAuthorize(Authorities.THEENTITY_CREATE)
     public TheEntity createTheEntity(final TheEntity entity) {
         log.debug("Create TheEntity {}", entity);
-        return theEntityRepository.save(entity);
+        final TheEntity savedEntity = theEntityRepository.save(entity);
+        theEntityCache.evict(List.of(savedEntity.getId()));
+        return savedEntity;
     }
 
+    /**
+     * Updates an entity with a single statement. Attributes of the given entity that are
+     * {@code null} are left unchanged. If the given entity has a version, the update is only
+     * applied if the stored entity still has this version. The entity is evicted from the cache
+     * after the commit.
+     *
+     * @param entity the new values
+     * @param theEntityId id of the entity to update
+     * @return the updated entity
+     */
     @PreAuthorize(Authorities.THEENTITY_UPDATE)
+    @Transactional
     public TheEntity updateTheEntity(final TheEntity entity, final UUID theEntityId) {
-        final TheEntity foundEntity = getEntityOrThrowException(theEntityId);
-        foundEntity.setTextAttribute(entity.getTextAttribute());
-        log.debug("Update TheEntity {}", foundEntity);
-        return theEntityRepository.save(foundEntity);
+        log.debug("Update TheEntity with ID {} to {}", theEntityId, entity);
+        final TheEntity updatedEntity = theEntityRepository.updateReturning(theEntityId, entity.getTextAttribute(), entity.getVersion())
+                .orElseThrow(() -> entity.getVersion() != null && theEntityRepository.existsById(theEntityId)
+                        ? new ConflictException(String.format(MSG_VERSION_CONFLICT, theEntityId, entity.getVersion()))
+                        : new NotFoundException(String.format(MSG_NOT_FOUND, theEntityId)));
+        theEntityCache.evictNotified(theEntityId);
+        return updatedEntity;
     }
 
     @PreAuthorize(Authorities.THEENTITY_DELETE)
     public void deleteTheEntity(final UUID theEntityId) {
         log.debug("Delete TheEntity with ID {}", theEntityId);
         theEntityRepository.deleteById(theEntityId);
+        theEntityCache.evict(List.of(theEntityId));
     }
 
-    private TheEntity getEntityOrThrowException(final UUID theEntityId) {
-        return theEntityRepository
-                .findById(theEntityId)
-                .orElseThrow(() -> new NotFoundException(String.format(MSG_NOT_FOUND, theEntityId)));
+    /**
+     * Deletes an entity with a single statement if it still has the expected version.
+     *
+     * @param theEntityId id of the entity to delete
+     * @param expectedVersion expected current version, {@code null} to skip the version check
+     */
+    @PreAuthorize(Authorities.THEENTITY_DELETE)
+    public void deleteTheEntity(final UUID theEntityId, final Long expectedVersion) {
+        if (expectedVersion == null) {
+            deleteTheEntity(theEntityId);
+            return;
+        }
+        log.debug("Delete TheEntity with ID {} and version {}", theEntityId, expectedVersion);
+        if (theEntityRepository.deleteByIdAndVersion(theEntityId, expectedVersion) == 0) {
+            throw theEntityRepository.existsById(theEntityId)
+                    ? new ConflictException(String.format(MSG_VERSION_CONFLICT, theEntityId, expectedVersion))
+                    : new NotFoundException(String.format(MSG_NOT_FOUND, theEntityId));
+        }
+        theEntityCache.evict(List.of(theEntityId));
+    }
+
+    private static long getMinimalTotal(final Slice<?> slice) {
+        return slice.getPageable().getOffset() + slice.getNumberOfElements() + (slice.hasNext() ? 1 : 0);
+    }
+
+    private long getEstimatedTotal() {
+        final Long estimatedCount = theEntityRepository.estimateCount();
+        if (estimatedCount == null || estimatedCount < 0) {
+            log.debug("No planner statistics available for TheEntity, falling back to exact count");
+            return theEntityRepository.count();
+        }
+        return estimatedCount;
     }
 }
@@ -0,0 +1,13 @@
+package de.muenchen.refarch.theentity.dto;
+
+/**
+ * Result status of a single item of a batch operation.
+ */
+public enum BatchItemStatus {
+    CREATED,
+    UPDATED,
+    DELETED,
+    NOT_FOUND,
+    INVALID,
+    FAILED
+}
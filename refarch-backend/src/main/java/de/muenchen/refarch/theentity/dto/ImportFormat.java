@@ -0,0 +1,15 @@
+package de.muenchen.refarch.theentity.dto;
+
+/**
+ * Formats supported by the import of TheEntity.
+ */
+public enum ImportFormat {
+    /**
+     * One {@code textAttribute} per line, optionally quoted and with an optional header line.
+     */
+    CSV,
+    /**
+     * One JSON object per line with the structure of {@link TheEntityRequestDTO}.
+     */
+    NDJSON
+}
@@ -0,0 +1,6 @@
+package de.muenchen.refarch.theentity.dto;
+
+import java.util.UUID;
+
+public record TheEntityBatchResultDTO(int index, UUID id, BatchItemStatus status, String message) {
+}
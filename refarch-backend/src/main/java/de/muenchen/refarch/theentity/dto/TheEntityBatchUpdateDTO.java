@@ -0,0 +1,8 @@
+package de.muenchen.refarch.theentity.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.UUID;
+
+public record TheEntityBatchUpdateDTO(@NotNull UUID id, @NotNull @Size(min = 2, max = 8) String textAttribute) {
+}
@@ -0,0 +1,4 @@
+package de.muenchen.refarch.theentity.dto;
+
+public record TheEntityImportRejectionDTO(long line, String message) {
+}
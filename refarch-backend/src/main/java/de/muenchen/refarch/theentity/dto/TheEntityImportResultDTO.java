@@ -0,0 +1,9 @@
+package de.muenchen.refarch.theentity.dto;
+
+import java.util.List;
+
+public record TheEntityImportResultDTO(long imported, long rejected, List<TheEntityImportRejectionDTO> rejections) {
+    public TheEntityImportResultDTO {
+        rejections = List.copyOf(rejections);
+    }
+}
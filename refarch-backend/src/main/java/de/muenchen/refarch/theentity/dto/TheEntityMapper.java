@@ -10,5 +10,12 @@ public interface TheEntityMapper {
     TheEntityResponseDTO toDTO(TheEntity theEntity);
 
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     TheEntity toEntity(TheEntityRequestDTO theEntityRequestDTO);
+
+    @Mapping(target = "version", ignore = true)
+    TheEntity toEntity(TheEntityBatchUpdateDTO theEntityBatchUpdateDTO);
+
+    @Mapping(target = "id", ignore = true)
+    TheEntity toEntity(TheEntityPatchDTO theEntityPatchDTO);
 }
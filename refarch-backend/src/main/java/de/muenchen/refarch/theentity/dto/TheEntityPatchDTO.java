@@ -0,0 +1,10 @@
+package de.muenchen.refarch.theentity.dto;
+
+import jakarta.validation.constraints.Size;
+
+/**
+ * Partial update of a TheEntity. Attributes that are {@code null} are left unchanged. If a
+ * {@code version} is given, the update is only applied if the entity still has this version.
+ */
+public record TheEntityPatchDTO(@Size(min = 2, max = 8) String textAttribute, Long version) {
+}
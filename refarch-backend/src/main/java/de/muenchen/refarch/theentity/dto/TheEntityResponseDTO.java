@@ -2,5 +2,5 @@ package de.muenchen.refarch.theentity.dto;
 
 import java.util.UUID;
 
-public record TheEntityResponseDTO(UUID id, String textAttribute) {
+public record TheEntityResponseDTO(UUID id, String textAttribute, Long version) {
 }
@@ -0,0 +1 @@
+alter table the_entity add column version bigint not null default 0;
@@ -0,0 +1,8 @@
+-- authorities fetched from the userinfo endpoint, shared by all instances, see JdbcAuthoritiesStore
+-- unlogged, as the entries can be fetched again and aren't worth the write-ahead log
+create unlogged table authorities_cache (
+    subject varchar(255) not null,
+    authorities text[] not null,
+    updated_at timestamp with time zone not null,
+    primary key (subject)
+);
@@ -7,6 +7,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import de.muenchen.refarch.MicroServiceApplication;
 import de.muenchen.refarch.TestConstants;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -38,8 +39,12 @@ class CacheControlConfigurationTest {
 
     private static final String ENTITY_ENDPOINT_URL = "/theEntity";
 
+    private static final String INFO_ENDPOINT_URL = "/actuator/info";
+
     private static final String EXPECTED_CACHE_CONTROL_HEADER_VALUES = "no-cache, no-store, must-revalidate";
 
+    private static final String EXPECTED_CONDITIONAL_CACHE_CONTROL_HEADER_VALUES = "no-cache, private";
+
     @Autowired
     private TestRestTemplate testRestTemplate;
 
@@ -47,6 +52,14 @@ class CacheControlConfigurationTest {
     void testForCacheControlHeadersForEntityEndpoint() {
         final ResponseEntity<String> response = testRestTemplate.exchange(ENTITY_ENDPOINT_URL, HttpMethod.GET, null, String.class);
         assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(response.getHeaders().containsKey(HttpHeaders.ETAG));
+        assertEquals(List.of(EXPECTED_CONDITIONAL_CACHE_CONTROL_HEADER_VALUES), response.getHeaders().get(HttpHeaders.CACHE_CONTROL));
+    }
+
+    @Test
+    void testForCacheControlHeadersForInfoEndpoint() {
+        final ResponseEntity<String> response = testRestTemplate.exchange(INFO_ENDPOINT_URL, HttpMethod.GET, null, String.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
         assertTrue(response.getHeaders().containsKey(HttpHeaders.CACHE_CONTROL));
         assertEquals(EXPECTED_CACHE_CONTROL_HEADER_VALUES, response.getHeaders().getCacheControl());
     }
@@ -0,0 +1,134 @@
+package de.muenchen.refarch.configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+@ExtendWith(MockitoExtension.class)
+class CachingJwtDecoderTest {
+
+    private static final String TOKEN = "header.payload.signature";
+
+    private static final String OTHER_TOKEN = "header.other.signature";
+
+    private static final Instant NOW = Instant.parse("2025-01-01T12:00:00Z");
+
+    @Mock
+    private JwtDecoder jwtDecoder;
+
+    private Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
+
+    private CachingJwtDecoder unitUnderTest;
+
+    @BeforeEach
+    void setUp() {
+        createUnitUnderTest();
+    }
+
+    private void createUnitUnderTest() {
+        // reads the clock field on every call, so tests can advance it
+        unitUnderTest = new CachingJwtDecoder(jwtDecoder, new SecurityProperties.JwtCache(), new Clock() {
+            @Override
+            public ZoneOffset getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(final ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return clock.instant();
+            }
+        });
+    }
+
+    @Test
+    void givenSameToken_thenTokenIsDecodedOnce() {
+        final Jwt jwt = jwt(TOKEN, NOW.plusSeconds(300));
+        when(jwtDecoder.decode(TOKEN)).thenReturn(jwt);
+
+        assertThat(unitUnderTest.decode(TOKEN)).isSameAs(jwt);
+        assertThat(unitUnderTest.decode(TOKEN)).isSameAs(jwt);
+
+        verify(jwtDecoder, times(1)).decode(TOKEN);
+    }
+
+    @Test
+    void givenDifferentTokens_thenEachTokenIsDecoded() {
+        when(jwtDecoder.decode(TOKEN)).thenReturn(jwt(TOKEN, NOW.plusSeconds(300)));
+        when(jwtDecoder.decode(OTHER_TOKEN)).thenReturn(jwt(OTHER_TOKEN, NOW.plusSeconds(300)));
+
+        assertThat(unitUnderTest.decode(TOKEN).getTokenValue()).isEqualTo(TOKEN);
+        assertThat(unitUnderTest.decode(OTHER_TOKEN).getTokenValue()).isEqualTo(OTHER_TOKEN);
+    }
+
+    @Test
+    void givenExpiredToken_thenTokenIsDecodedAgain() {
+        when(jwtDecoder.decode(TOKEN))
+                .thenReturn(jwt(TOKEN, NOW.plusSeconds(300)))
+                .thenThrow(new BadJwtException("expired"));
+
+        unitUnderTest.decode(TOKEN);
+        clock = Clock.offset(clock, Duration.ofSeconds(301));
+
+        assertThatThrownBy(() -> unitUnderTest.decode(TOKEN)).isInstanceOf(BadJwtException.class);
+        verify(jwtDecoder, times(2)).decode(TOKEN);
+    }
+
+    @Test
+    void givenTokenWithoutExpiry_thenTokenIsNotCached() {
+        when(jwtDecoder.decode(TOKEN)).thenReturn(jwt(TOKEN, null));
+
+        unitUnderTest.decode(TOKEN);
+        unitUnderTest.decode(TOKEN);
+
+        verify(jwtDecoder, times(2)).decode(TOKEN);
+    }
+
+    @Test
+    void givenInvalidToken_thenFailureIsNotCached() {
+        when(jwtDecoder.decode(TOKEN))
+                .thenThrow(new BadJwtException("invalid signature"))
+                .thenReturn(jwt(TOKEN, NOW.plusSeconds(300)));
+
+        assertThatThrownBy(() -> unitUnderTest.decode(TOKEN)).isInstanceOf(BadJwtException.class);
+        assertThat(unitUnderTest.decode(TOKEN).getTokenValue()).isEqualTo(TOKEN);
+    }
+
+    @Test
+    void givenMeterRegistry_thenCacheMetricsAreBound() {
+        final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        unitUnderTest.bindTo(registry);
+
+        assertThat(registry.find("cache.gets").tag("cache", "jwt_cache").meters()).isNotEmpty();
+    }
+
+    private static Jwt jwt(final String token, final Instant expiresAt) {
+        return Jwt.withTokenValue(token)
+                .header("alg", "RS256")
+                .subject("subject")
+                .issuedAt(NOW)
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
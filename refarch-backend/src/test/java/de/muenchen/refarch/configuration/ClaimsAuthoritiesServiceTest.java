@@ -0,0 +1,160 @@
+package de.muenchen.refarch.configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.nimbusds.jose.util.JSONObjectUtils;
+import java.text.ParseException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.MappedJwtClaimSetConverter;
+
+@ExtendWith(MockitoExtension.class)
+class ClaimsAuthoritiesServiceTest {
+
+    private static final String CLIENT = "refarch";
+
+    private static final String REALM_ACCESS = "realm_access";
+
+    private static final String ROLES = "roles";
+
+    private static final String READER = "reader";
+
+    private static final String WRITER = "writer";
+
+    private static final String AUTHORITIES = "authorities";
+
+    private static final String THEENTITY_READ = "REFARCH_THEENTITY_READ";
+
+    /**
+     * Claims of an access token issued by Keycloak without a mapper for the authorities claim. The
+     * claims realm_access and resource_access are always present.
+     */
+    private static final String KEYCLOAK_CLAIMS = """
+            {
+              "exp": 1760000300,
+              "iat": 1760000000,
+              "jti": "5d1b6c2e-4a7f-4d49-9a57-1f3c2b8e6d10",
+              "iss": "https://sso.example.com/auth/realms/refarch",
+              "aud": "account",
+              "sub": "3f2e5c1a-7b8d-4e6f-9a0b-1c2d3e4f5a6b",
+              "typ": "Bearer",
+              "azp": "refarch",
+              "sid": "0b9c8d7e-6f5a-4b3c-2d1e-0f9a8b7c6d5e",
+              "acr": "1",
+              "allowed-origins": ["https://refarch.example.com"],
+              "realm_access": { "roles": ["offline_access", "uma_authorization", "default-roles-refarch"] },
+              "resource_access": { "account": { "roles": ["manage-account", "manage-account-links", "view-profile"] } },
+              "scope": "openid profile email",
+              "email_verified": true,
+              "name": "Erika Mustermann",
+              "preferred_username": "erika.mustermann",
+              "given_name": "Erika",
+              "family_name": "Mustermann",
+              "email": "erika.mustermann@example.com"
+            }
+            """;
+
+    @Mock
+    private UserInfoAuthoritiesService userInfoAuthoritiesService;
+
+    private ClaimsAuthoritiesService unitUnderTest;
+
+    @BeforeEach
+    void setUp() {
+        final SecurityProperties securityProperties = new SecurityProperties();
+        securityProperties.getAuthoritiesClaims().setResourceRolesClients(List.of(CLIENT));
+        unitUnderTest = new ClaimsAuthoritiesService(securityProperties);
+    }
+
+    @Test
+    void givenAuthorityClaims_thenAuthoritiesAndPrefixedRoles() {
+        final Jwt jwt = jwt(Map.of(
+                AUTHORITIES, List.of(THEENTITY_READ),
+                REALM_ACCESS, Map.of(ROLES, List.of(READER)),
+                "resource_access", Map.of(CLIENT, Map.of(ROLES, List.of(WRITER)), "other", Map.of(ROLES, List.of("admin")))));
+
+        assertThat(unitUnderTest.loadAuthorities(jwt)).hasValueSatisfying(authorities -> assertThat(authorities).containsExactly(
+                new SimpleGrantedAuthority(THEENTITY_READ), new SimpleGrantedAuthority("ROLE_reader"),
+                new SimpleGrantedAuthority("ROLE_writer")));
+    }
+
+    @Test
+    void givenTokensWithEqualClaims_thenAuthoritiesAreConvertedOnce() {
+        final Map<String, Object> claims = Map.of(AUTHORITIES, List.of(THEENTITY_READ), REALM_ACCESS, Map.of(ROLES, List.of(READER, WRITER)));
+
+        final Collection<SimpleGrantedAuthority> first = unitUnderTest.loadAuthorities(jwt(claims)).orElseThrow();
+        final Collection<SimpleGrantedAuthority> second = unitUnderTest
+                .loadAuthorities(jwt(Map.of(AUTHORITIES, List.of(THEENTITY_READ), REALM_ACCESS, Map.of(ROLES, List.of(READER, WRITER)))))
+                .orElseThrow();
+
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    void givenNoAuthorityClaims_thenUserInfoIsCalled() {
+        final Jwt jwt = jwt(Map.of("email", "user@example.com"));
+        final List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_reader"));
+        when(userInfoAuthoritiesService.loadAuthorities(jwt)).thenReturn(authorities);
+
+        assertThat(unitUnderTest.loadAuthorities(jwt)).isEmpty();
+        assertThat(new JwtUserInfoAuthenticationConverter(userInfoAuthoritiesService, unitUnderTest).convert(jwt).getAuthorities())
+                .containsExactlyElementsOf(authorities);
+        verify(userInfoAuthoritiesService).loadAuthorities(jwt);
+    }
+
+    @Test
+    void givenAuthorityClaims_thenUserInfoIsNotCalled() {
+        final Jwt jwt = jwt(Map.of(AUTHORITIES, List.of(THEENTITY_READ), REALM_ACCESS, Map.of(ROLES, List.of(READER))));
+
+        assertThat(new JwtUserInfoAuthenticationConverter(userInfoAuthoritiesService, unitUnderTest).convert(jwt).getAuthorities())
+                .containsExactly(new SimpleGrantedAuthority(THEENTITY_READ), new SimpleGrantedAuthority("ROLE_reader"));
+        verifyNoInteractions(userInfoAuthoritiesService);
+    }
+
+    @Test
+    void givenKeycloakTokenWithoutAuthoritiesClaim_thenUserInfoIsCalled() throws ParseException {
+        final Jwt jwt = keycloakJwt();
+        final List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority(THEENTITY_READ));
+        when(userInfoAuthoritiesService.loadAuthorities(jwt)).thenReturn(authorities);
+
+        assertThat(unitUnderTest.loadAuthorities(jwt)).isEmpty();
+        assertThat(new JwtUserInfoAuthenticationConverter(userInfoAuthoritiesService, unitUnderTest).convert(jwt).getAuthorities())
+                .containsExactlyElementsOf(authorities);
+        verify(userInfoAuthoritiesService).loadAuthorities(jwt);
+    }
+
+    @Test
+    void givenKeycloakTokenAndNoAuthoritiesClaimConfigured_thenRolesAreUsed() throws ParseException {
+        final SecurityProperties securityProperties = new SecurityProperties();
+        securityProperties.getAuthoritiesClaims().setAuthoritiesClaim("");
+        final ClaimsAuthoritiesService rolesOnly = new ClaimsAuthoritiesService(securityProperties);
+
+        assertThat(rolesOnly.loadAuthorities(keycloakJwt())).hasValueSatisfying(authorities -> assertThat(authorities)
+                .containsExactly(new SimpleGrantedAuthority("ROLE_offline_access"), new SimpleGrantedAuthority("ROLE_uma_authorization"),
+                        new SimpleGrantedAuthority("ROLE_default-roles-refarch")));
+    }
+
+    private static Jwt keycloakJwt() throws ParseException {
+        // converted like the claims of a decoded token, e.g. exp and iat to instants
+        return jwt(MappedJwtClaimSetConverter.withDefaults(Map.of()).convert(JSONObjectUtils.parse(KEYCLOAK_CLAIMS)));
+    }
+
+    private static Jwt jwt(final Map<String, Object> claims) {
+        return Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .subject("subject")
+                .claims(c -> c.putAll(claims))
+                .build();
+    }
+}
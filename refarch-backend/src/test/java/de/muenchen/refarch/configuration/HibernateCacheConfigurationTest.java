@@ -0,0 +1,79 @@
+package de.muenchen.refarch.configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.OptionalLong;
+import javax.cache.CacheManager;
+import org.hibernate.cache.spi.RegionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.io.ClassPathResource;
+
+class HibernateCacheConfigurationTest {
+
+    private static final String TIMESTAMPS_REGION = RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME;
+
+    private final HibernateCacheConfiguration configuration = new HibernateCacheConfiguration();
+
+    @Test
+    void givenApplicationConfiguration_thenUpdateTimestampsRegionIsUnbounded() throws IOException {
+        final HibernateCacheProperties properties = new Binder(ConfigurationPropertySources.from(
+                new YamlPropertySourceLoader().load("application", new ClassPathResource("application.yml"))))
+                .bind("hibernate-cache", HibernateCacheProperties.class)
+                .get();
+
+        try (CacheManager cacheManager = configuration.hibernateCacheManager(properties)) {
+            final CaffeineConfiguration<?, ?> timestamps = regionConfiguration(cacheManager, TIMESTAMPS_REGION);
+            assertThat(timestamps.getMaximumSize()).isEmpty();
+            assertThat(timestamps.getExpireAfterWrite()).isEmpty();
+            assertThat(regionConfiguration(cacheManager, "the_entity").getMaximumSize()).hasValue(10_000);
+        }
+    }
+
+    @Test
+    void givenRegionWithoutMaximumSize_thenDefaultMaximumSizeIsUsed() {
+        final HibernateCacheProperties properties = new HibernateCacheProperties();
+        properties.getRegions().put("region", new HibernateCacheProperties.Region());
+
+        try (CacheManager cacheManager = configuration.hibernateCacheManager(properties)) {
+            assertThat(regionConfiguration(cacheManager, "region").getMaximumSize()).isEqualTo(OptionalLong.of(10_000));
+        }
+    }
+
+    @Test
+    void givenBoundedUpdateTimestampsRegion_thenStartupFails() {
+        final HibernateCacheProperties.Region region = new HibernateCacheProperties.Region();
+        region.setMaximumSize(1000L);
+
+        assertThatThrownBy(() -> configuration.hibernateCacheManager(propertiesWithTimestampsRegion(region)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining(TIMESTAMPS_REGION);
+    }
+
+    @Test
+    void givenExpiringUpdateTimestampsRegion_thenStartupFails() {
+        final HibernateCacheProperties.Region region = new HibernateCacheProperties.Region();
+        region.setExpireAfterWrite(Duration.ofMinutes(5));
+
+        assertThatThrownBy(() -> configuration.hibernateCacheManager(propertiesWithTimestampsRegion(region)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining(TIMESTAMPS_REGION);
+    }
+
+    private static HibernateCacheProperties propertiesWithTimestampsRegion(final HibernateCacheProperties.Region region) {
+        final HibernateCacheProperties properties = new HibernateCacheProperties();
+        properties.getRegions().put(TIMESTAMPS_REGION, region);
+        return properties;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static CaffeineConfiguration<?, ?> regionConfiguration(final CacheManager cacheManager, final String name) {
+        return cacheManager.getCache(name).getConfiguration(CaffeineConfiguration.class);
+    }
+}
@@ -0,0 +1,16 @@
+package de.muenchen.refarch.configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class JdbcAuthoritiesStoreQueryTimeoutTest {
+
+    @ParameterizedTest
+    @CsvSource({ "PT0S, 1", "PT0.2S, 1", "PT1S, 1", "PT1.001S, 2", "PT2.5S, 3", "PT1M, 60" })
+    void givenQueryTimeout_thenRoundedUpToAtLeastOneSecond(final Duration timeout, final int expectedSeconds) {
+        assertThat(JdbcAuthoritiesStore.queryTimeoutSeconds(timeout)).isEqualTo(expectedSeconds);
+    }
+}
@@ -0,0 +1,85 @@
+package de.muenchen.refarch.configuration;
+
+import static de.muenchen.refarch.TestConstants.SPRING_TEST_PROFILE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import de.muenchen.refarch.TestConstants;
+import java.time.Duration;
+import java.util.List;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+@Testcontainers
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles(profiles = { SPRING_TEST_PROFILE })
+class JdbcAuthoritiesStoreTest {
+
+    @Container
+    @ServiceConnection
+    @SuppressWarnings("unused")
+    private static final PostgreSQLContainer<?> POSTGRE_SQL_CONTAINER = new PostgreSQLContainer<>(
+            DockerImageName.parse(TestConstants.TESTCONTAINERS_POSTGRES_IMAGE));
+
+    private static final String SUBJECT = "subject";
+
+    private static final Duration MAX_AGE = Duration.ofSeconds(60);
+
+    private static final List<SimpleGrantedAuthority> AUTHORITIES = List.of(new SimpleGrantedAuthority("READ_THEENTITY"),
+            new SimpleGrantedAuthority("WRITE_THEENTITY"));
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private JdbcAuthoritiesStore unitUnderTest;
+
+    @BeforeEach
+    void setUp() {
+        unitUnderTest = new JdbcAuthoritiesStore(dataSource, new SecurityProperties());
+    }
+
+    @Test
+    void givenSavedAuthorities_thenAuthoritiesAreFound() {
+        unitUnderTest.save(SUBJECT, AUTHORITIES);
+
+        assertThat(unitUnderTest.find(SUBJECT, MAX_AGE)).hasValue(AUTHORITIES);
+        assertThat(unitUnderTest.find("other", MAX_AGE)).isEmpty();
+    }
+
+    @Test
+    void givenSavedAuthoritiesAgain_thenAuthoritiesAreOverwritten() {
+        unitUnderTest.save(SUBJECT, AUTHORITIES);
+        unitUnderTest.save(SUBJECT, List.of());
+
+        assertThat(unitUnderTest.find(SUBJECT, MAX_AGE)).hasValue(List.of());
+    }
+
+    @Test
+    void givenAuthoritiesOlderThanMaxAge_thenAuthoritiesAreNotFound() {
+        unitUnderTest.save(SUBJECT, AUTHORITIES);
+        jdbcTemplate.update("update authorities_cache set updated_at = now() - interval '2 minutes' where subject = ?", SUBJECT);
+
+        assertThat(unitUnderTest.find(SUBJECT, MAX_AGE)).isEmpty();
+    }
+
+    @Test
+    void givenTable_thenTableIsUnlogged() {
+        assertThat(jdbcTemplate.queryForObject("select relpersistence from pg_class where relname = 'authorities_cache'", String.class))
+                .isEqualTo("u");
+    }
+}
@@ -0,0 +1,163 @@
+package de.muenchen.refarch.configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.security.oauth2.resource.OAuth2ResourceServerProperties;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+class JwkSetConfigurationTest {
+
+    private static final String SUBJECT = "subject";
+
+    private static RSAKey key;
+
+    private static RSAKey rotatedKey;
+
+    private static RSAKey unknownKey;
+
+    private final JwkSetConfiguration configuration = new JwkSetConfiguration();
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private final AtomicReference<JWKSet> published = new AtomicReference<>();
+
+    private HttpServer server;
+
+    private JWKSource<SecurityContext> jwkSource;
+
+    private JwtDecoder jwtDecoder;
+
+    @BeforeAll
+    static void generateKeys() throws JOSEException {
+        key = new RSAKeyGenerator(2048).keyID("key").generate();
+        rotatedKey = new RSAKeyGenerator(2048).keyID("rotated").generate();
+        unknownKey = new RSAKeyGenerator(2048).keyID("unknown").generate();
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        published.set(new JWKSet(key.toPublicJWK()));
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/certs", exchange -> {
+            requests.incrementAndGet();
+            final JWKSet jwkSet = published.get();
+            if (jwkSet == null) {
+                exchange.sendResponseHeaders(503, -1);
+            } else {
+                final byte[] body = jwkSet.toString().getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+            exchange.close();
+        });
+        server.start();
+
+        final String jwkSetUri = "http://localhost:" + server.getAddress().getPort() + "/certs";
+        final OAuth2ResourceServerProperties resourceServerProperties = new OAuth2ResourceServerProperties();
+        resourceServerProperties.getJwt().setJwkSetUri(jwkSetUri);
+        jwkSource = JwkSetConfiguration.jwkSource(URI.create(jwkSetUri).toURL(), new SecurityProperties.JwkSet());
+        // built like the auto-configured decoder
+        final NimbusJwtDecoder.JwkSetUriJwtDecoderBuilder builder = NimbusJwtDecoder.withJwkSetUri(jwkSetUri);
+        configuration.jwkSourceJwtDecoderCustomizer(jwkSource, resourceServerProperties).customize(builder);
+        jwtDecoder = builder.build();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        ((AutoCloseable) jwkSource).close();
+        server.stop(0);
+    }
+
+    @Test
+    void givenPrefetchedJwkSet_thenTokensAreVerifiedWithoutFetching() throws JOSEException {
+        JwkSetConfiguration.prefetch(jwkSource);
+        assertThat(requests).hasValue(1);
+
+        assertThat(jwtDecoder.decode(token(key)).getSubject()).isEqualTo(SUBJECT);
+        assertThat(jwtDecoder.decode(token(key)).getSubject()).isEqualTo(SUBJECT);
+        assertThat(requests).hasValue(1);
+    }
+
+    @Test
+    void givenRotatedKey_thenJwkSetIsFetchedAgain() throws JOSEException {
+        JwkSetConfiguration.prefetch(jwkSource);
+        published.set(new JWKSet(List.of(key.toPublicJWK(), rotatedKey.toPublicJWK())));
+
+        assertThat(jwtDecoder.decode(token(rotatedKey)).getSubject()).isEqualTo(SUBJECT);
+        assertThat(requests).hasValue(2);
+    }
+
+    @Test
+    void givenUnknownKeys_thenFetchesAreRateLimited() throws JOSEException {
+        JwkSetConfiguration.prefetch(jwkSource);
+
+        for (int i = 0; i < 10; i++) {
+            final String token = token(unknownKey);
+            assertThatThrownBy(() -> jwtDecoder.decode(token)).isInstanceOf(BadJwtException.class);
+        }
+        assertThat(requests).hasValueLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void givenUnavailableJwkSet_thenLastFetchedKeysAreUsed() throws JOSEException {
+        JwkSetConfiguration.prefetch(jwkSource);
+        published.set(null);
+
+        // the refetch for the unknown key fails, which rejects the token, but not the known keys
+        final String token = token(unknownKey);
+        assertThatThrownBy(() -> jwtDecoder.decode(token)).isInstanceOf(BadJwtException.class);
+        assertThat(jwtDecoder.decode(token(key)).getSubject()).isEqualTo(SUBJECT);
+    }
+
+    @Test
+    void givenUnavailableJwkSetOnStartup_thenPrefetchDoesNotFail() throws JOSEException {
+        published.set(null);
+        JwkSetConfiguration.prefetch(jwkSource);
+
+        published.set(new JWKSet(key.toPublicJWK()));
+        assertThat(jwtDecoder.decode(token(key)).getSubject()).isEqualTo(SUBJECT);
+    }
+
+    private static String token(final RSAKey signingKey) throws JOSEException {
+        final SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(signingKey.getKeyID()).build(),
+                new JWTClaimsSet.Builder()
+                        .subject(SUBJECT)
+                        .expirationTime(Date.from(Instant.now().plusSeconds(300)))
+                        .build());
+        jwt.sign(new RSASSASigner(signingKey));
+        return jwt.serialize();
+    }
+}
@@ -11,12 +11,27 @@ import de.muenchen.refarch.theentity.TheEntity;
 import de.muenchen.refarch.theentity.TheEntityRepository;
 import de.muenchen.refarch.theentity.dto.TheEntityRequestDTO;
 import de.muenchen.refarch.theentity.dto.TheEntityResponseDTO;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.http.RequestEntity;
 import org.springframework.test.context.ActiveProfiles;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
@@ -29,6 +44,7 @@ import org.testcontainers.utility.DockerImageName;
         webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT
 )
 @ActiveProfiles(profiles = { SPRING_TEST_PROFILE, SPRING_NO_SECURITY_PROFILE })
+@Import(UnicodeConfigurationTest.AsyncServletConfiguration.class)
 class UnicodeConfigurationTest {
 
     @Container
@@ -39,6 +55,8 @@ class UnicodeConfigurationTest {
 
     private static final String ENTITY_ENDPOINT_URL = "/theEntity";
 
+    private static final String ASYNC_ENDPOINT_URL = "/nfc-async";
+
     /**
      * Decomposed string:
      * String "Ä-é" represented with unicode letters "A◌̈-e◌́"
@@ -80,4 +98,77 @@ class UnicodeConfigurationTest {
         assertEquals(TEXT_ATTRIBUTE_COMPOSED.length(), theEntity.getTextAttribute().length());
     }
 
+    @Test
+    void testForNfcNormalizationOfNonBlockingRead() {
+        // Given
+        final RequestEntity<String> request = RequestEntity.post(URI.create(ASYNC_ENDPOINT_URL))
+                .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+                .body(TEXT_ATTRIBUTE_DECOMPOSED);
+
+        // When
+        final String response = testRestTemplate.exchange(request, String.class).getBody();
+
+        // Then
+        // Check whether the body read via the ReadListener is a composed string.
+        assertEquals(TEXT_ATTRIBUTE_COMPOSED, response);
+    }
+
+    /**
+     * Registers a servlet reading the request body non-blocking via a {@link ReadListener}, which
+     * requires all filters of the chain to support asynchronous requests.
+     */
+    @TestConfiguration
+    /* default */ static class AsyncServletConfiguration {
+
+        @Bean
+        public ServletRegistrationBean<HttpServlet> asyncServletRegistration() {
+            final ServletRegistrationBean<HttpServlet> registration = new ServletRegistrationBean<>(new AsyncEchoServlet(), ASYNC_ENDPOINT_URL);
+            registration.setAsyncSupported(true);
+            return registration;
+        }
+    }
+
+    /**
+     * Echoes the request body read non-blocking.
+     */
+    private static final class AsyncEchoServlet extends HttpServlet {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        @SuppressWarnings("PMD.CloseResource") // the input stream is closed by the container
+        protected void doPost(final HttpServletRequest request, final HttpServletResponse response) throws IOException {
+            final AsyncContext asyncContext = request.startAsync();
+            final ServletInputStream inputStream = request.getInputStream();
+            final ByteArrayOutputStream body = new ByteArrayOutputStream();
+            inputStream.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    final byte[] buffer = new byte[1024];
+                    while (inputStream.isReady()) {
+                        final int read = inputStream.read(buffer);
+                        if (read < 0) {
+                            return;
+                        }
+                        body.write(buffer, 0, read);
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() throws IOException {
+                    response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+                    response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+                    response.getWriter().write(body.toString(StandardCharsets.UTF_8));
+                    asyncContext.complete();
+                }
+
+                @Override
+                public void onError(final Throwable throwable) {
+                    response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                    asyncContext.complete();
+                }
+            });
+        }
+    }
+
 }
@@ -0,0 +1,266 @@
+package de.muenchen.refarch.configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class UserInfoAuthoritiesServiceTest {
+
+    private static final String USER_INFO_URI = "http://localhost/userinfo";
+
+    private static final String SUBJECT = "subject";
+
+    private static final ResourceAccessException TIMEOUT = new ResourceAccessException("timeout");
+
+    private static final String CLAIM_AUTHORITIES = "authorities";
+
+    private static final String READ = "READ_THEENTITY";
+
+    private static final String WRITE = "WRITE_THEENTITY";
+
+    private static final Map<String, Object> USER_INFO = Map.of(CLAIM_AUTHORITIES, List.of(READ, WRITE));
+
+    private static final List<SimpleGrantedAuthority> AUTHORITIES = List.of(new SimpleGrantedAuthority(READ),
+            new SimpleGrantedAuthority(WRITE));
+
+    @Mock
+    private RestTemplateBuilder restTemplateBuilder;
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    @Mock
+    private AuthoritiesStore sharedStore;
+
+    private AuthoritiesStore authoritiesStore = AuthoritiesStore.NONE;
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private final SecurityProperties securityProperties = new SecurityProperties();
+
+    private final CircuitBreaker circuitBreaker = CircuitBreaker.of(UserInfoAuthoritiesService.CIRCUIT_BREAKER_NAME,
+            CircuitBreakerConfig.custom()
+                    .slidingWindowSize(4)
+                    .minimumNumberOfCalls(4)
+                    .permittedNumberOfCallsInHalfOpenState(1)
+                    .build());
+
+    private UserInfoAuthoritiesService unitUnderTest;
+
+    @BeforeEach
+    void setUp() {
+        when(restTemplateBuilder.build()).thenReturn(restTemplate);
+        securityProperties.setUserInfoUri(USER_INFO_URI);
+        createUnitUnderTest();
+    }
+
+    private void createUnitUnderTest() {
+        // refreshes run synchronously in the requesting thread
+        unitUnderTest = new UserInfoAuthoritiesService(securityProperties, restTemplateBuilder, circuitBreaker, Runnable::run, authoritiesStore,
+                nanos::get);
+    }
+
+    @Test
+    void givenCachedSubject_thenUserInfoIsNotCalledAgain() {
+        when(exchange()).thenReturn(ResponseEntity.ok(USER_INFO));
+
+        assertThat(unitUnderTest.loadAuthorities(jwt())).isEqualTo(AUTHORITIES);
+        assertThat(unitUnderTest.loadAuthorities(jwt())).isEqualTo(AUTHORITIES);
+
+        verify(restTemplate, times(1)).exchange(any(String.class), eq(HttpMethod.GET), any(HttpEntity.class), eq(Map.class));
+    }
+
+    @Test
+    @SuppressWarnings("PMD.DoNotUseThreads") // concurrent requests are simulated by threads
+    void givenConcurrentRequests_thenUserInfoIsCalledOnce() throws Exception {
+        final int requests = 20;
+        final CountDownLatch called = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        when(exchange()).thenAnswer(invocation -> {
+            called.countDown();
+            assertThat(release.await(10, TimeUnit.SECONDS)).isTrue();
+            return ResponseEntity.ok(USER_INFO);
+        });
+
+        final List<Future<Collection<SimpleGrantedAuthority>>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(requests)) {
+            for (int i = 0; i < requests; i++) {
+                results.add(executor.submit(() -> unitUnderTest.loadAuthorities(jwt())));
+            }
+            assertThat(called.await(10, TimeUnit.SECONDS)).isTrue();
+            release.countDown();
+            for (final Future<Collection<SimpleGrantedAuthority>> result : results) {
+                assertThat(result.get(10, TimeUnit.SECONDS)).isEqualTo(AUTHORITIES);
+            }
+        }
+
+        verify(restTemplate, times(1)).exchange(any(String.class), eq(HttpMethod.GET), any(HttpEntity.class), eq(Map.class));
+    }
+
+    @Test
+    void givenFailedUserInfoCall_thenNoAuthoritiesAreCachedForNegativeTtl() {
+        when(exchange())
+                .thenThrow(TIMEOUT)
+                .thenReturn(ResponseEntity.ok(USER_INFO));
+
+        assertThat(unitUnderTest.loadAuthorities(jwt())).isEmpty();
+        assertThat(unitUnderTest.loadAuthorities(jwt())).isEmpty();
+        nanos.addAndGet(Duration.ofSeconds(11).toNanos());
+        assertThat(unitUnderTest.loadAuthorities(jwt())).isEqualTo(AUTHORITIES);
+
+        verify(restTemplate, times(2)).exchange(any(String.class), eq(HttpMethod.GET), any(HttpEntity.class), eq(Map.class));
+    }
+
+    @Test
+    void givenFailingUserInfo_thenCircuitOpensAndIsClosedByProbe() {
+        when(exchange()).thenThrow(TIMEOUT);
+        for (int i = 0; i < 4; i++) {
+            assertThat(unitUnderTest.loadAuthorities(jwt(SUBJECT + i))).isEmpty();
+        }
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        // not permitted while the circuit is open
+        assertThat(unitUnderTest.loadAuthorities(jwt(SUBJECT + 4))).isEmpty();
+        verify(restTemplate, times(4)).exchange(any(String.class), eq(HttpMethod.GET), any(HttpEntity.class), eq(Map.class));
+
+        reset(restTemplate);
+        when(exchange()).thenReturn(ResponseEntity.ok(USER_INFO));
+        circuitBreaker.transitionToHalfOpenState();
+        assertThat(unitUnderTest.loadAuthorities(jwt(SUBJECT + 5))).isEqualTo(AUTHORITIES);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void givenGraceWindow_thenLastKnownAuthoritiesAreGrantedIfUserInfoFails() {
+        securityProperties.getAuthoritiesCache().setGraceWindow(Duration.ofMinutes(10));
+        createUnitUnderTest();
+        when(exchange())
+                .thenReturn(ResponseEntity.ok(USER_INFO))
+                .thenThrow(TIMEOUT);
+
+        assertThat(unitUnderTest.loadAuthorities(jwt())).isEqualTo(AUTHORITIES);
+        nanos.addAndGet(Duration.ofMinutes(6).toNanos());
+        assertThat(unitUnderTest.loadAuthorities(jwt())).isEqualTo(AUTHORITIES);
+        nanos.addAndGet(Duration.ofMinutes(10).toNanos());
+        assertThat(unitUnderTest.loadAuthorities(jwt())).isEmpty();
+
+        verify(restTemplate, times(3)).exchange(any(String.class), eq(HttpMethod.GET), any(HttpEntity.class), eq(Map.class));
+    }
+
+    @Test
+    void givenStaleEntry_thenCachedAuthoritiesAreServedAndRefreshed() {
+        when(exchange())
+                .thenReturn(ResponseEntity.ok(USER_INFO))
+                .thenReturn(ResponseEntity.ok(Map.of(CLAIM_AUTHORITIES, List.of(READ))));
+
+        assertThat(unitUnderTest.loadAuthorities(jwt())).isEqualTo(AUTHORITIES);
+        nanos.addAndGet(Duration.ofSeconds(61).toNanos());
+        assertThat(unitUnderTest.loadAuthorities(jwt())).isEqualTo(AUTHORITIES);
+        assertThat(unitUnderTest.loadAuthorities(jwt())).containsExactly(new SimpleGrantedAuthority(READ));
+
+        verify(restTemplate, times(2)).exchange(any(String.class), eq(HttpMethod.GET), any(HttpEntity.class), eq(Map.class));
+    }
+
+    @Test
+    void givenFailedRefresh_thenCachedAuthoritiesAreServedUntilExpired() {
+        when(exchange())
+                .thenReturn(ResponseEntity.ok(USER_INFO))
+                .thenThrow(TIMEOUT);
+
+        assertThat(unitUnderTest.loadAuthorities(jwt())).isEqualTo(AUTHORITIES);
+        nanos.addAndGet(Duration.ofSeconds(61).toNanos());
+        assertThat(unitUnderTest.loadAuthorities(jwt())).isEqualTo(AUTHORITIES);
+        nanos.addAndGet(Duration.ofMinutes(5).toNanos());
+        assertThat(unitUnderTest.loadAuthorities(jwt())).isEmpty();
+
+        verify(restTemplate, times(3)).exchange(any(String.class), eq(HttpMethod.GET), any(HttpEntity.class), eq(Map.class));
+    }
+
+    @Test
+    void givenAuthoritiesInSharedStore_thenUserInfoIsNotCalled() {
+        authoritiesStore = sharedStore;
+        createUnitUnderTest();
+        when(sharedStore.find(SUBJECT, Duration.ofSeconds(60))).thenReturn(Optional.of(AUTHORITIES));
+
+        assertThat(unitUnderTest.loadAuthorities(jwt())).isEqualTo(AUTHORITIES);
+
+        verifyNoInteractions(restTemplate);
+    }
+
+    @Test
+    void givenNoAuthoritiesInSharedStore_thenFetchedAuthoritiesAreSaved() {
+        authoritiesStore = sharedStore;
+        createUnitUnderTest();
+        when(sharedStore.find(SUBJECT, Duration.ofSeconds(60))).thenReturn(Optional.empty());
+        when(exchange()).thenReturn(ResponseEntity.ok(USER_INFO));
+
+        assertThat(unitUnderTest.loadAuthorities(jwt())).isEqualTo(AUTHORITIES);
+
+        verify(sharedStore).save(SUBJECT, AUTHORITIES);
+    }
+
+    @Test
+    void givenMeterRegistry_thenCacheAndCircuitBreakerMetricsAreBound() {
+        final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        unitUnderTest.bindTo(registry);
+
+        assertThat(registry.find("cache.gets").tag("cache", "authentication_cache").meters()).isNotEmpty();
+
+        circuitBreaker.transitionToOpenState();
+        assertThat(registry.get("resilience4j.circuitbreaker.state.transitions").tag("to", "OPEN").counter().count()).isEqualTo(1);
+    }
+
+    @SuppressWarnings("rawtypes")
+    private ResponseEntity<Map> exchange() {
+        return restTemplate.exchange(any(String.class), eq(HttpMethod.GET), any(HttpEntity.class), eq(Map.class));
+    }
+
+    private static Jwt jwt() {
+        return jwt(SUBJECT);
+    }
+
+    private static Jwt jwt(final String subject) {
+        return Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .subject(subject)
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(300))
+                .build();
+    }
+}
@@ -0,0 +1,96 @@
+package de.muenchen.refarch.configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import org.apache.hc.client5.http.impl.IdleConnectionEvictor;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+class UserInfoClientConfigurationTest {
+
+    private final UserInfoClientConfiguration configuration = new UserInfoClientConfiguration();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private PoolingHttpClientConnectionManager connectionManager;
+
+    private CloseableHttpClient httpClient;
+
+    private IdleConnectionEvictor connectionEvictor;
+
+    @BeforeEach
+    void setUp() {
+        final SecurityProperties securityProperties = new SecurityProperties();
+        securityProperties.getUserInfoClient().setResponseTimeout(Duration.ofMillis(200));
+        securityProperties.getUserInfoClient().setIdleTimeout(Duration.ofMillis(200));
+        connectionManager = configuration.userInfoConnectionManager(securityProperties);
+        httpClient = configuration.userInfoHttpClient(connectionManager, securityProperties, meterRegistry);
+        connectionEvictor = configuration.userInfoConnectionEvictor(connectionManager, securityProperties);
+        connectionEvictor.start();
+        configuration.userInfoConnectionPoolMetrics(connectionManager).bindTo(meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        connectionEvictor.shutdown();
+        httpClient.close();
+        connectionManager.close();
+    }
+
+    @Test
+    void givenUnresponsiveServer_thenRequestTimesOut() throws IOException {
+        // accepts connections, but never responds
+        try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            final RestTemplate restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+            final String uri = "http://localhost:" + server.getLocalPort() + "/userinfo";
+
+            final long start = System.nanoTime();
+            assertThatThrownBy(() -> restTemplate.getForObject(uri, String.class)).isInstanceOf(ResourceAccessException.class);
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+        }
+
+        assertThat(meterRegistry.get("httpcomponents.httpclient.pool.wait").tag("httpclient", "userinfo").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("httpcomponents.httpclient.pool.total.max").tag("httpclient", "userinfo").gauge().value()).isEqualTo(50);
+    }
+
+    @Test
+    void givenIdleConnection_thenConnectionIsClosed() throws IOException {
+        final HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/userinfo", exchange -> {
+            final byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        try {
+            final RestTemplate restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+            restTemplate.getForObject("http://localhost:" + server.getAddress().getPort() + "/userinfo", String.class);
+            // kept alive for reuse
+            assertThat(connectionManager.getTotalStats().getAvailable()).isEqualTo(1);
+
+            await().atMost(Duration.ofSeconds(5))
+                    .untilAsserted(() -> assertThat(connectionManager.getTotalStats().getAvailable()).isZero());
+        } finally {
+            server.stop(0);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package de.muenchen.refarch.configuration.nfcconverter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+class MediaTypeMatcherTest {
+
+    @Test
+    void givenContentTypeWithParameters_thenMatchesMediaType() {
+        final MediaTypeMatcher matcher = new MediaTypeMatcher("text/plain; application/json");
+
+        assertTrue(matcher.matches(MediaType.parseMediaType("application/json;charset=UTF-8")));
+        assertTrue(matcher.matches(MediaType.parseMediaType("TEXT/PLAIN")));
+        assertFalse(matcher.matches(MediaType.parseMediaType("application/octet-stream")));
+    }
+
+    @Test
+    void givenWildcards_thenMatchesSubtypes() {
+        final MediaTypeMatcher matcher = new MediaTypeMatcher("text/*, application/*+json");
+
+        assertTrue(matcher.matches(MediaType.parseMediaType("text/html")));
+        assertTrue(matcher.matches(MediaType.parseMediaType("application/hal+json")));
+        assertFalse(matcher.matches(MediaType.parseMediaType("application/xml")));
+    }
+
+    @Test
+    void givenCharset_thenMatchesOnlySameCharset() {
+        final MediaTypeMatcher matcher = new MediaTypeMatcher("text/plain;charset=UTF-8;application/json");
+
+        assertEquals("text/plain;charset=UTF-8, application/json", matcher.toString());
+        assertTrue(matcher.matches(MediaType.parseMediaType("text/plain;charset=utf-8")));
+        assertFalse(matcher.matches(MediaType.parseMediaType("text/plain;charset=ISO-8859-1")));
+        assertFalse(matcher.matches(MediaType.parseMediaType("text/plain")));
+    }
+
+    @Test
+    void givenNoMediaTypes_thenMatchesNothing() {
+        final MediaTypeMatcher matcher = new MediaTypeMatcher(" ");
+
+        assertTrue(matcher.isEmpty());
+        assertFalse(matcher.matches(MediaType.TEXT_PLAIN));
+    }
+}
@@ -2,6 +2,8 @@ package de.muenchen.refarch.configuration.nfcconverter;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -49,7 +51,6 @@ class NfcConverterTest {
 
     private static final String VALUE_NFC = Normalizer.normalize(VALUE_NFD, Normalizer.Form.NFC);
 
-    @SuppressWarnings("unused")
     private static final String VALUE2_NFC = Normalizer.normalize(VALUE2_NFD, Normalizer.Form.NFC);
 
     // For places in the API where strings must comply with certain rules.
@@ -57,6 +58,8 @@ class NfcConverterTest {
 
     private static final Charset UTF8 = StandardCharsets.UTF_8;
 
+    private static final String TEXT_PLAIN = "text/plain";
+
     @Mock
     private HttpServletRequest req;
 
@@ -71,7 +74,7 @@ class NfcConverterTest {
     // Test that request with configured ContentType is normalized to NFC.
     @Test
     void testFilterIfContenttypeInWhitelist() throws ServletException, IOException {
-        mockRequest("text/plain");
+        mockRequest(TEXT_PLAIN);
 
         filter.setContentTypes("text/plain;text/html;application/json");
 
@@ -112,6 +115,119 @@ class NfcConverterTest {
         assertArrayEquals(VALUE_NFD.getBytes(UTF8), IOUtils.toByteArray(reqCaptor.getValue().getPart(NAME_NFD).getInputStream()));
     }
 
+    // Test that a request, whose ContentType has parameters, is normalized to NFC.
+    @Test
+    void testFilterIfContenttypeWithCharsetInWhitelist() throws ServletException, IOException {
+        mockRequest("text/plain;charset=UTF-8");
+
+        filter.setContentTypes("text/*");
+
+        filter.doFilter(req, resp, chain);
+
+        // Check
+        final ArgumentCaptor<HttpServletRequest> reqCaptor = ArgumentCaptor.forClass(HttpServletRequest.class);
+        Mockito.verify(chain, Mockito.times(1)).doFilter(reqCaptor.capture(), Mockito.any(ServletResponse.class));
+
+        assertEquals(VALUE_NFC, reqCaptor.getValue().getParameter(NAME_NFC));
+        assertEquals(VALUE_NFC, IOUtils.toString(reqCaptor.getValue().getReader()));
+    }
+
+    // Test that the body of a request with a charset, which cannot encode non-NFC characters, is not touched.
+    @Test
+    void testSkipBodyIfCharsetIsLatin1() throws ServletException, IOException {
+        mockRequest("text/plain;charset=ISO-8859-1");
+
+        filter.setContentTypes(TEXT_PLAIN);
+
+        filter.doFilter(req, resp, chain);
+
+        // Check
+        final ArgumentCaptor<HttpServletRequest> reqCaptor = ArgumentCaptor.forClass(HttpServletRequest.class);
+        Mockito.verify(chain, Mockito.times(1)).doFilter(reqCaptor.capture(), Mockito.any(ServletResponse.class));
+
+        assertEquals(VALUE_NFC, reqCaptor.getValue().getParameter(NAME_NFC));
+        assertSame(req.getReader(), reqCaptor.getValue().getReader());
+    }
+
+    // Test that a request to an excluded path is not touched.
+    @Test
+    void testSkipFilterIfPathExcluded() throws ServletException, IOException {
+        mockRequest(TEXT_PLAIN);
+        Mockito.when(req.getRequestURI()).thenReturn("/binary/upload");
+        Mockito.when(req.getContextPath()).thenReturn("");
+
+        filter.setContentTypes(TEXT_PLAIN);
+        filter.setIncludePaths("/**");
+        filter.setExcludePaths("/binary/**, /other/**");
+
+        filter.doFilter(req, resp, chain);
+
+        // Check
+        Mockito.verify(chain, Mockito.times(1)).doFilter(req, resp);
+    }
+
+    // Test that the body of a request with a JSON ContentType is left to Jackson, but parameters and headers are normalized.
+    @Test
+    void testSkipBodyIfContenttypeIsJson() throws ServletException, IOException {
+        mockRequest("application/json");
+
+        filter.setContentTypes("text/plain;application/json");
+        filter.setJsonContentTypes("application/json");
+
+        filter.doFilter(req, resp, chain);
+
+        // Check
+        final ArgumentCaptor<HttpServletRequest> reqCaptor = ArgumentCaptor.forClass(HttpServletRequest.class);
+        Mockito.verify(chain, Mockito.times(1)).doFilter(reqCaptor.capture(), Mockito.any(ServletResponse.class));
+
+        assertEquals(VALUE_NFC, reqCaptor.getValue().getParameter(NAME_NFC));
+        assertEquals(VALUE_NFC, reqCaptor.getValue().getHeader(NAME_NFC));
+        assertEquals(VALUE_NFD, IOUtils.toString(reqCaptor.getValue().getReader()));
+    }
+
+    // Test that headers, parameters and cookies are only converted when accessed and only once.
+    @Test
+    void testConvertLazilyAndOnlyOnce() throws ServletException, IOException {
+        mockRequest(TEXT_PLAIN);
+
+        filter.setContentTypes(TEXT_PLAIN);
+
+        filter.doFilter(req, resp, chain);
+
+        // Check
+        final ArgumentCaptor<HttpServletRequest> reqCaptor = ArgumentCaptor.forClass(HttpServletRequest.class);
+        Mockito.verify(chain, Mockito.times(1)).doFilter(reqCaptor.capture(), Mockito.any(ServletResponse.class));
+        Mockito.verify(req, Mockito.never()).getParameterMap();
+        Mockito.verify(req, Mockito.never()).getHeaderNames();
+        Mockito.verify(req, Mockito.never()).getCookies();
+
+        assertEquals(VALUE_NFC, reqCaptor.getValue().getHeader(NAME_NFC));
+        assertEquals(VALUE_NFC, reqCaptor.getValue().getHeader(NAME_NFC));
+        assertArrayEquals(new String[] { VALUE_NFC, VALUE2_NFC }, reqCaptor.getValue().getParameterValues(NAME_NFD));
+        assertEquals(VALUE_NFC, reqCaptor.getValue().getParameter(NAME_NFC));
+        Mockito.verify(req, Mockito.times(1)).getHeaders(NAME_NFD);
+        Mockito.verify(req, Mockito.times(1)).getHeaderNames();
+        Mockito.verify(req, Mockito.never()).getCookies();
+    }
+
+    // Test that unknown parameters are null, also if the parameter map doesn't allow null keys.
+    @Test
+    void testUnknownParameterIsNull() throws ServletException, IOException {
+        mockRequest(TEXT_PLAIN);
+        Mockito.when(req.getParameterMap()).thenReturn(Map.of(NAME_NFD, new String[] { VALUE_NFD }));
+
+        filter.setContentTypes(TEXT_PLAIN);
+
+        filter.doFilter(req, resp, chain);
+
+        // Check
+        final ArgumentCaptor<HttpServletRequest> reqCaptor = ArgumentCaptor.forClass(HttpServletRequest.class);
+        Mockito.verify(chain, Mockito.times(1)).doFilter(reqCaptor.capture(), Mockito.any(ServletResponse.class));
+        assertNull(reqCaptor.getValue().getParameterValues(TOKEN));
+        assertNull(reqCaptor.getValue().getParameter(TOKEN));
+        assertEquals(VALUE_NFC, reqCaptor.getValue().getParameter(NAME_NFC));
+    }
+
     private void mockRequest(final String contentType) throws IOException, ServletException {
         Mockito.when(req.getContentType()).thenReturn(contentType);
         Mockito.when(req.getRequestURI()).thenReturn("/index.html?type=" + contentType);
@@ -2,6 +2,9 @@ package de.muenchen.refarch.configuration.nfcconverter;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import jakarta.servlet.http.Cookie;
 import java.util.Arrays;
@@ -95,6 +98,35 @@ class NfcHelperTest {
         });
     }
 
+    @Test
+    void nfcConverterReturnsNormalizedInputItself() {
+        final String ascii = "plain ascii";
+        final String latin1 = "Gr\u00fc\u00dfe";
+        final String[] nfcArray = { ascii, latin1, FIRST_NFC };
+        final Map<String, String[]> nfcMap = Map.of(ascii, nfcArray);
+        final StringBuffer nfcBuffer = new StringBuffer(SECOND_NFC);
+        final Cookie nfcCookie = new Cookie(NfcConverterTest.TOKEN, latin1);
+        final Cookie[] nfcCookies = { nfcCookie };
+
+        assertSame(ascii, NfcHelper.nfcConverter(ascii));
+        assertSame(latin1, NfcHelper.nfcConverter(latin1));
+        assertSame(FIRST_NFC, NfcHelper.nfcConverter(FIRST_NFC));
+        assertSame(nfcArray, NfcHelper.nfcConverter(nfcArray));
+        assertSame(nfcMap, NfcHelper.nfcConverter(nfcMap));
+        assertSame(nfcBuffer, NfcHelper.nfcConverter(nfcBuffer));
+        assertSame(nfcCookie, NfcHelper.nfcConverter(nfcCookie));
+        assertSame(nfcCookies, NfcHelper.nfcConverter(nfcCookies));
+    }
+
+    @Test
+    void isNfc() {
+        assertTrue(NfcHelper.isNfc(null));
+        assertTrue(NfcHelper.isNfc("Gr\u00fc\u00dfe"));
+        assertTrue(NfcHelper.isNfc(THIRD_NFC));
+        assertFalse(NfcHelper.isNfc(SECOND_NFD));
+        assertFalse(NfcHelper.isNfc("\u212b"));
+    }
+
     private static Cookie createNfdCookie() {
         final Cookie nfdCookie = new Cookie(NfcConverterTest.TOKEN, Arrays.toString(NFD_INPUT));
         nfdCookie.setDomain(THIRD_NFD);
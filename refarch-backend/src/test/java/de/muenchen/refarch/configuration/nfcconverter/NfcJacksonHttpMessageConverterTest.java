@@ -0,0 +1,59 @@
+package de.muenchen.refarch.configuration.nfcconverter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpInputMessage;
+
+class NfcJacksonHttpMessageConverterTest {
+
+    private static final String TEXT_NFD = "aM\u0302ao\u0308a";
+
+    private static final String TEXT_NFC = Normalizer.normalize(TEXT_NFD, Normalizer.Form.NFC);
+
+    private static final String JSON = "{\"text\":\"" + TEXT_NFD + "\"}";
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+
+    private final NfcJacksonHttpMessageConverter converter = new NfcJacksonHttpMessageConverter(objectMapper, List.of(MediaType.APPLICATION_JSON),
+            false);
+
+    private record Values(String text) {
+    }
+
+    @Test
+    void givenConfiguredMediaType_thenStringsAreNormalized() throws IOException {
+        final MockHttpInputMessage inputMessage = new MockHttpInputMessage(JSON.getBytes(StandardCharsets.UTF_8));
+        inputMessage.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+
+        assertTrue(converter.canRead(Values.class, MediaType.APPLICATION_JSON));
+        assertEquals(TEXT_NFC, ((Values) converter.read(Values.class, inputMessage)).text());
+    }
+
+    @Test
+    void givenOtherMediaType_thenBodyIsNotRead() {
+        assertFalse(converter.canRead(Values.class, MediaType.APPLICATION_NDJSON));
+    }
+
+    @Test
+    void givenResponse_thenNothingIsWritten() {
+        assertFalse(converter.canWrite(Values.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canWrite(Values.class, Values.class, MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void givenObjectMapperOfApplication_thenObjectMapperIsNotChanged() throws JsonProcessingException {
+        assertEquals(TEXT_NFD, objectMapper.readValue(JSON, Values.class).text());
+    }
+
+}
@@ -0,0 +1,56 @@
+package de.muenchen.refarch.configuration.nfcconverter;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import java.text.Normalizer;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class NfcJacksonModuleTest {
+
+    private static final String TEXT_NFD = "aM\u0302ao\u0308a";
+
+    private static final String TEXT_NFC = Normalizer.normalize(TEXT_NFD, Normalizer.Form.NFC);
+
+    private static final String JSON = "{\"text\":\"" + TEXT_NFD + "\",\"list\":[\"" + TEXT_NFD + "\"],\"array\":[\"" + TEXT_NFD + "\"]}";
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().addModule(new NfcJacksonModule(false)).build();
+
+    private record Values(String text, List<String> list, String[] array) {
+    }
+
+    @Test
+    void givenRecord_thenStringsAreNormalized() throws JsonProcessingException {
+        final Values values = objectMapper.readValue(JSON, Values.class);
+
+        assertEquals(TEXT_NFC, values.text());
+        assertEquals(List.of(TEXT_NFC), values.list());
+        assertArrayEquals(new String[] { TEXT_NFC }, values.array());
+    }
+
+    @Test
+    void givenUntypedValues_thenStringsAreNormalized() throws JsonProcessingException {
+        final Map<String, Object> values = objectMapper.readValue(JSON, new TypeReference<>() {
+        });
+
+        assertEquals(TEXT_NFC, values.get("text"));
+        assertEquals(List.of(TEXT_NFC), values.get("list"));
+    }
+
+    @Test
+    void givenFieldNames_thenOnlyNormalizedIfEnabled() throws JsonProcessingException {
+        final String json = "{\"" + TEXT_NFD + "\":\"" + TEXT_NFD + "\"}";
+        final TypeReference<Map<String, String>> type = new TypeReference<>() {
+        };
+
+        assertEquals(Map.of(TEXT_NFD, TEXT_NFC), objectMapper.readValue(json, type));
+        assertEquals(Map.of(TEXT_NFC, TEXT_NFC), JsonMapper.builder().addModule(new NfcJacksonModule(true)).build().readValue(json, type));
+    }
+
+}
@@ -0,0 +1,93 @@
+package de.muenchen.refarch.configuration.nfcconverter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+/**
+ * Compares the time and heap allocated per request for parsing a JSON body, which is either
+ * rewritten by the {@link NfcRequest} or normalized by the {@link NfcJacksonModule} while it is
+ * parsed.
+ */
+@Slf4j
+@Disabled("run manually to compare the NFC normalization of JSON bodies")
+class NfcJsonBodyComparisonTest {
+
+    private static final String ASCII_ITEM = "Lorem ipsum dolor sit amet, consetetur sadipscing elitr";
+
+    private static final String NFD_ITEM = "Gru\u0308\u00DFe aus Mu\u0308nchen, scho\u0308ne Gru\u0308\u00DFe an A\u0308rzte";
+
+    private static final int WARMUP_ITERATIONS = 200;
+
+    private static final int MEASURED_ITERATIONS = 1000;
+
+    private static final Set<String> CONTENT_TYPES = Set.of("application/json");
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+
+    private final ObjectMapper nfcObjectMapper = JsonMapper.builder().addModule(new NfcJacksonModule(false)).build();
+
+    private record Payload(List<String> items) {
+    }
+
+    @ParameterizedTest
+    @SuppressWarnings("PMD.UnitTestShouldIncludeAssert") // asserted while warming up
+    @CsvSource({ "false, 16", "false, 16384", "true, 16", "true, 16384" })
+    void compareFilterAndJacksonModule(final boolean decomposed, final int itemCount) throws IOException {
+        final String item = decomposed ? NFD_ITEM : ASCII_ITEM;
+        final byte[] body = objectMapper.writeValueAsBytes(new Payload(Collections.nCopies(itemCount, item)));
+        final String expected = Normalizer.normalize(item, Normalizer.Form.NFC);
+
+        final long[] filterPath = measure(() -> parse(body, true, objectMapper), expected);
+        final long[] jacksonPath = measure(() -> parse(body, false, nfcObjectMapper), expected);
+
+        log.info("{} bytes, decomposed {}: filter path {} ns and {} bytes/request, Jackson module path {} ns and {} bytes/request",
+                body.length, decomposed, filterPath[0], filterPath[1], jacksonPath[0], jacksonPath[1]);
+    }
+
+    private static Payload parse(final byte[] body, final boolean convertBody, final ObjectMapper mapper) throws IOException {
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setContentType("application/json");
+        request.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        request.setContent(body);
+        try (InputStream inputStream = new NfcRequest(request, CONTENT_TYPES, convertBody).getInputStream()) {
+            return mapper.readValue(inputStream, Payload.class);
+        }
+    }
+
+    /**
+     * @return nanoseconds and bytes allocated per request
+     */
+    private static long[] measure(final Parser parser, final String expected) throws IOException {
+        final com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            assertEquals(expected, parser.parse().items().getFirst());
+        }
+        final long allocatedBefore = threadMXBean.getCurrentThreadAllocatedBytes();
+        final long before = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            parser.parse();
+        }
+        final long time = (System.nanoTime() - before) / MEASURED_ITERATIONS;
+        return new long[] { time, (threadMXBean.getCurrentThreadAllocatedBytes() - allocatedBefore) / MEASURED_ITERATIONS };
+    }
+
+    @FunctionalInterface
+    private interface Parser {
+        Payload parse() throws IOException;
+    }
+}
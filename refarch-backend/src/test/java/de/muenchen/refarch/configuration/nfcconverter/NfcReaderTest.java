@@ -0,0 +1,96 @@
+package de.muenchen.refarch.configuration.nfcconverter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.text.Normalizer;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+
+class NfcReaderTest {
+
+    private static final String TEXT_NFD = "aM\u0302ao\u0308a \uD835\uDC00\u0301 \u1100\u1161\u11A8 e\u0323\u0302";
+
+    private static String nfc(final String in) {
+        return Normalizer.normalize(in, Normalizer.Form.NFC);
+    }
+
+    @Test
+    void readConvertsToNfc() throws IOException {
+        assertEquals(nfc(TEXT_NFD), IOUtils.toString(new NfcReader(new StringReader(TEXT_NFD))));
+    }
+
+    @Test
+    void readConvertsCombiningSequencesSplitAcrossReads() throws IOException {
+        // the wrapped reader returns a single character per read, so every sequence is split
+        try (Reader singleCharReader = new StringReader(TEXT_NFD) {
+            @Override
+            public int read(final char[] cbuf, final int off, final int len) throws IOException {
+                return super.read(cbuf, off, Math.min(len, 1));
+            }
+        }) {
+            assertEquals(nfc(TEXT_NFD), IOUtils.toString(new NfcReader(singleCharReader)));
+        }
+    }
+
+    @Test
+    void readConvertsCombiningSequencesAtWindowBoundary() throws IOException {
+        final String text = "x".repeat(NfcReader.WINDOW_SIZE - 1) + "o\u0308" + "a".repeat(NfcReader.WINDOW_SIZE);
+
+        final String result = IOUtils.toString(new NfcReader(new StringReader(text)));
+
+        assertEquals(nfc(text), result);
+        assertEquals('\u00F6', result.charAt(NfcReader.WINDOW_SIZE - 1));
+    }
+
+    @Test
+    void readCharacterByCharacter() throws IOException {
+        final StringBuilder result = new StringBuilder();
+        try (NfcReader reader = new NfcReader(new StringReader(TEXT_NFD))) {
+            int character = reader.read();
+            while (character >= 0) {
+                result.append((char) character);
+                character = reader.read();
+            }
+        }
+
+        assertEquals(nfc(TEXT_NFD), result.toString());
+    }
+
+    @Test
+    void readLongSequenceWithoutBoundary() throws IOException {
+        final String text = "a" + "\u0301".repeat(NfcReader.MAX_PENDING_SIZE * 2);
+
+        final String result = IOUtils.toString(new NfcReader(new StringReader(text)));
+
+        assertEquals(text.length() - 1, result.length());
+        assertTrue(result.startsWith("\u00E1"));
+    }
+
+    @Test
+    void lastBoundaryIsBeforeLastStarter() {
+        assertEquals(3, NfcReader.lastBoundary("abco\u0323\u0308"));
+        assertEquals(1, NfcReader.lastBoundary("a\u1100\u1161"));
+        assertEquals(0, NfcReader.lastBoundary("\u0323\u0308"));
+        assertEquals(2, NfcReader.lastBoundary("a \uD835"));
+    }
+
+    @Test
+    void splitAtBoundaryKeepsNormalization() {
+        // splitting the decomposition of any character at a boundary must not change its NFC form
+        for (int codePoint = 0; codePoint <= Character.MAX_CODE_POINT; codePoint++) {
+            if (Character.getType(codePoint) == Character.SURROGATE) {
+                continue;
+            }
+            final String decomposed = Normalizer.normalize(Character.toString(codePoint), Normalizer.Form.NFD);
+            final int boundary = NfcReader.lastBoundary(decomposed);
+            if (boundary > 0) {
+                assertEquals(nfc(decomposed), nfc(decomposed.substring(0, boundary)) + nfc(decomposed.substring(boundary)),
+                        "U+" + Integer.toHexString(codePoint));
+            }
+        }
+    }
+}
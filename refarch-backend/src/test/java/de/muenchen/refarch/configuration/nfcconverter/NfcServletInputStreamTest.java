@@ -0,0 +1,183 @@
+package de.muenchen.refarch.configuration.nfcconverter;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class NfcServletInputStreamTest {
+
+    private static final String TEXT_NFD = "{\"a\":\"aM\u0302ao\u0308a \uD835\uDC00\u0301 \u1100\u1161\u11A8 e\u0323\u0302 a\u0308\u6F22\u5B57o\u0308\"}";
+
+    private static byte[] nfc(final String in) {
+        return Normalizer.normalize(in, Normalizer.Form.NFC).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] readFully(final byte[] content, final int chunkSize) throws IOException {
+        try (NfcServletInputStream nfcInputStream = new NfcServletInputStream(new TestServletInputStream(content, chunkSize))) {
+            return IOUtils.toByteArray(nfcInputStream);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 2, 3, 5, NfcServletInputStream.WINDOW_SIZE })
+    void readConvertsToNfc(final int chunkSize) throws IOException {
+        assertArrayEquals(nfc(TEXT_NFD), readFully(TEXT_NFD.getBytes(StandardCharsets.UTF_8), chunkSize));
+    }
+
+    @Test
+    void readConvertsCombiningSequencesAtWindowBoundary() throws IOException {
+        final String text = "x".repeat(NfcServletInputStream.WINDOW_SIZE - 1) + "o\u0308" + "a".repeat(NfcServletInputStream.WINDOW_SIZE);
+        assertArrayEquals(nfc(text), readFully(text.getBytes(StandardCharsets.UTF_8), NfcServletInputStream.WINDOW_SIZE));
+    }
+
+    @Test
+    void readConvertsTextWithoutAscii() throws IOException {
+        final String text = "\u6F22\u5B57\u304B\u3099".repeat(NfcServletInputStream.MAX_PENDING_SIZE);
+        assertArrayEquals(nfc(text), readFully(text.getBytes(StandardCharsets.UTF_8), NfcServletInputStream.WINDOW_SIZE));
+    }
+
+    @Test
+    void readLongSequenceWithoutBoundary() throws IOException {
+        final String text = "a" + "\u0301".repeat(NfcServletInputStream.MAX_PENDING_SIZE);
+        final String result = new String(readFully(text.getBytes(StandardCharsets.UTF_8), NfcServletInputStream.WINDOW_SIZE), StandardCharsets.UTF_8);
+
+        assertEquals(text.length() - 1, result.length());
+        assertTrue(result.startsWith("\u00E1"));
+    }
+
+    @Test
+    void readKeepsMalformedBytesOfNormalizedText() throws IOException {
+        final byte[] content = { 'a', (byte) 0xFF, 'b', (byte) 0xC3 };
+        assertArrayEquals(content, readFully(content, 1));
+    }
+
+    @Test
+    void lastBoundaryIsBeforeLastStarter() {
+        final byte[] text = "ab\u00E4\u00F6\u6F22".getBytes(StandardCharsets.UTF_8);
+
+        assertEquals(6, Utf8Sequences.lastBoundary(text, text.length));
+        assertEquals(4, Utf8Sequences.lastBoundary(text, text.length - 1));
+        assertEquals(1, Utf8Sequences.lastBoundary(text, 3));
+    }
+
+    @Test
+    void sequenceLengthFromLeadByte() {
+        assertEquals(1, Utf8Sequences.sequenceLength((byte) 'a'));
+        assertEquals(0, Utf8Sequences.sequenceLength((byte) 0x80));
+        assertEquals(2, Utf8Sequences.sequenceLength((byte) 0xC3));
+        assertEquals(3, Utf8Sequences.sequenceLength((byte) 0xE6));
+        assertEquals(4, Utf8Sequences.sequenceLength((byte) 0xF0));
+        assertEquals(0, Utf8Sequences.sequenceLength((byte) 0xFF));
+    }
+
+    @Test
+    void readNonBlocking() throws IOException {
+        try (TestServletInputStream original = new TestServletInputStream(TEXT_NFD.getBytes(StandardCharsets.UTF_8), 3);
+                NfcServletInputStream nfcInputStream = new NfcServletInputStream(original)) {
+            final ByteArrayOutputStream result = new ByteArrayOutputStream();
+            final boolean[] allDataRead = { false };
+            nfcInputStream.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    final byte[] buffer = new byte[16];
+                    while (nfcInputStream.isReady()) {
+                        final int read = nfcInputStream.read(buffer);
+                        if (read < 0) {
+                            return;
+                        }
+                        result.write(buffer, 0, read);
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    allDataRead[0] = true;
+                }
+
+                @Override
+                public void onError(final Throwable throwable) {
+                    throw new AssertionError(throwable);
+                }
+            });
+
+            // the container calls the listener whenever new data arrived
+            while (!original.isFinished()) {
+                original.ready = true;
+                original.listener.onDataAvailable();
+            }
+            original.listener.onAllDataRead();
+
+            assertArrayEquals(nfc(TEXT_NFD), result.toByteArray());
+            assertTrue(allDataRead[0]);
+            assertTrue(nfcInputStream.isFinished());
+        }
+    }
+
+    /**
+     * Stream returning at most {@code chunkSize} bytes per read. In non-blocking mode it is not ready
+     * after each read, until the test marks it ready again.
+     */
+    @SuppressWarnings("PMD.TestClassWithoutTestCases")
+    private static class TestServletInputStream extends ServletInputStream {
+
+        private final byte[] content;
+
+        private final int chunkSize;
+
+        private int position;
+
+        private boolean ready = true;
+
+        private ReadListener listener;
+
+        /* default */ TestServletInputStream(final byte[] content, final int chunkSize) {
+            super();
+            this.content = content.clone();
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public int read() {
+            final byte[] single = new byte[1];
+            return read(single, 0, 1) < 0 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) {
+            if (position >= content.length) {
+                return -1;
+            }
+            final int count = Math.min(Math.min(len, chunkSize), content.length - position);
+            System.arraycopy(content, position, b, off, count);
+            position += count;
+            ready = listener == null;
+            return count;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return position >= content.length;
+        }
+
+        @Override
+        public boolean isReady() {
+            return ready && !isFinished();
+        }
+
+        @Override
+        public void setReadListener(final ReadListener readListener) {
+            this.listener = readListener;
+        }
+    }
+}
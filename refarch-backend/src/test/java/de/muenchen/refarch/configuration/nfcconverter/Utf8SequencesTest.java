@@ -0,0 +1,31 @@
+package de.muenchen.refarch.configuration.nfcconverter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class Utf8SequencesTest {
+
+    @ParameterizedTest
+    @ValueSource(
+            ints = {
+                    // ASCII
+                    0x00, 'A', 'z', 0x7F,
+                    // 2-byte sequences
+                    0x80, 0xE4, 0x0308, 0x07FF,
+                    // 3-byte sequences
+                    0x0800, 0x1100, 0x20AC, 0xFFFD,
+                    // 4-byte sequences
+                    0x10000, 0x1D400, 0x10FFFF
+            }
+    )
+    void decodeReturnsCodePointOfSequence(final int codePoint) {
+        final byte[] bytes = ("x" + Character.toString(codePoint) + "x").getBytes(StandardCharsets.UTF_8);
+        final int sequenceLength = Utf8Sequences.sequenceLength(bytes[1]);
+
+        assertEquals(Character.toString(codePoint).getBytes(StandardCharsets.UTF_8).length, sequenceLength);
+        assertEquals(codePoint, Utf8Sequences.decode(bytes, 1, sequenceLength));
+    }
+}
@@ -0,0 +1,212 @@
+package de.muenchen.refarch.theentity;
+
+import static de.muenchen.refarch.common.ExceptionMessageConstants.MSG_BATCH_CHUNK_FAILED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import de.muenchen.refarch.common.BadRequestException;
+import de.muenchen.refarch.theentity.dto.BatchItemStatus;
+import de.muenchen.refarch.theentity.dto.TheEntityBatchResultDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.Validation;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class TheEntityBatchServiceTest {
+    private static final String DEFAULT_TEXTATTRIBUT = "rand";
+
+    private static final String NEW_TEXTATTRIBUT = "new";
+
+    @Mock
+    private TheEntityRepository theEntityRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TheEntityCache theEntityCache;
+
+    private TheEntityBatchService unitUnderTest;
+
+    @BeforeEach
+    void setUp() {
+        final TheEntityProperties theEntityProperties = new TheEntityProperties();
+        theEntityProperties.setBatchChunkSize(2);
+        theEntityProperties.setBatchMaxItems(3);
+        unitUnderTest = new TheEntityBatchService(theEntityRepository, theEntityProperties, transactionTemplate, entityManager,
+                Validation.buildDefaultValidatorFactory().getValidator(), theEntityCache);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void executeTransactionCallbacks() {
+        doAnswer(invocation -> {
+            invocation.getArgument(0, Consumer.class).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any(Consumer.class));
+    }
+
+    private static TheEntity createEntity(final UUID id, final String textAttribute) {
+        final TheEntity entity = new TheEntity();
+        entity.setId(id);
+        entity.setTextAttribute(textAttribute);
+        return entity;
+    }
+
+    @Nested
+    class CreateTheEntities {
+        @Test
+        void givenEntities_thenEntitiesAreSavedInChunks() {
+            // Given
+            executeTransactionCallbacks();
+            final List<TheEntity> entities = List.of(createEntity(null, DEFAULT_TEXTATTRIBUT), createEntity(null, DEFAULT_TEXTATTRIBUT),
+                    createEntity(null, DEFAULT_TEXTATTRIBUT));
+
+            // When
+            final List<TheEntityBatchResultDTO> result = unitUnderTest.createTheEntities(entities);
+
+            // Then
+            assertThat(result).extracting(TheEntityBatchResultDTO::status).containsOnly(BatchItemStatus.CREATED);
+            assertThat(result).extracting(TheEntityBatchResultDTO::index).containsExactly(0, 1, 2);
+            verify(theEntityRepository, times(2)).saveAll(any());
+            verify(theEntityCache, times(2)).evict(any());
+            verify(entityManager, times(2)).flush();
+            verify(entityManager, times(2)).clear();
+        }
+
+        @Test
+        void givenInvalidEntity_thenOnlyValidEntitiesAreSaved() {
+            // Given
+            executeTransactionCallbacks();
+            final List<TheEntity> entities = Arrays.asList(createEntity(null, "x"), createEntity(null, DEFAULT_TEXTATTRIBUT), null);
+
+            // When
+            final List<TheEntityBatchResultDTO> result = unitUnderTest.createTheEntities(entities);
+
+            // Then
+            assertThat(result).extracting(TheEntityBatchResultDTO::status)
+                    .containsExactly(BatchItemStatus.INVALID, BatchItemStatus.CREATED, BatchItemStatus.INVALID);
+            assertThat(result.getFirst().message()).contains("textAttribute");
+            verify(theEntityRepository).saveAll(List.of(entities.get(1)));
+        }
+
+        @Test
+        void givenFailingChunk_thenItemsOfChunkAreReportedAsFailed() {
+            // Given
+            doThrow(new PersistenceException("duplicate key value violates unique constraint")).when(transactionTemplate).executeWithoutResult(any());
+            final List<TheEntity> entities = List.of(createEntity(null, DEFAULT_TEXTATTRIBUT));
+
+            // When
+            final List<TheEntityBatchResultDTO> result = unitUnderTest.createTheEntities(entities);
+
+            // Then
+            assertThat(result).extracting(TheEntityBatchResultDTO::status).containsExactly(BatchItemStatus.FAILED);
+            assertThat(result.getFirst().message()).isEqualTo(MSG_BATCH_CHUNK_FAILED);
+            verify(entityManager).clear();
+        }
+
+        @Test
+        void givenTooManyEntities_thenThrowBadRequestException() {
+            // Given
+            final List<TheEntity> entities = List.of(createEntity(null, DEFAULT_TEXTATTRIBUT), createEntity(null, DEFAULT_TEXTATTRIBUT),
+                    createEntity(null, DEFAULT_TEXTATTRIBUT), createEntity(null, DEFAULT_TEXTATTRIBUT));
+
+            // When
+            final Throwable thrown = catchThrowable(() -> unitUnderTest.createTheEntities(entities));
+
+            // Then
+            assertThat(thrown).isInstanceOf(BadRequestException.class).hasMessageContaining("maximum of 3 items");
+            verifyNoInteractions(transactionTemplate, theEntityRepository);
+        }
+    }
+
+    @Nested
+    class UpdateTheEntities {
+        @Test
+        void givenEntities_thenFoundEntitiesAreUpdated() {
+            // Given
+            executeTransactionCallbacks();
+            final UUID existingId = UUID.randomUUID();
+            final UUID missingId = UUID.randomUUID();
+            final TheEntity existingEntity = createEntity(existingId, DEFAULT_TEXTATTRIBUT);
+            when(theEntityRepository.findAllById(List.of(existingId, missingId))).thenReturn(List.of(existingEntity));
+
+            // When
+            final List<TheEntityBatchResultDTO> result = unitUnderTest.updateTheEntities(List.of(createEntity(existingId, NEW_TEXTATTRIBUT),
+                    createEntity(missingId, NEW_TEXTATTRIBUT)));
+
+            // Then
+            assertThat(result).extracting(TheEntityBatchResultDTO::status).containsExactly(BatchItemStatus.UPDATED, BatchItemStatus.NOT_FOUND);
+            assertThat(result).extracting(TheEntityBatchResultDTO::id).containsExactly(existingId, missingId);
+            assertThat(existingEntity.getTextAttribute()).isEqualTo(NEW_TEXTATTRIBUT);
+            verify(theEntityCache).evict(Set.of(existingId));
+        }
+
+        @Test
+        void givenEntityWithoutId_thenEntityIsReportedAsInvalid() {
+            // Given
+            executeTransactionCallbacks();
+            final UUID existingId = UUID.randomUUID();
+            final TheEntity existingEntity = createEntity(existingId, DEFAULT_TEXTATTRIBUT);
+            when(theEntityRepository.findAllById(List.of(existingId))).thenReturn(List.of(existingEntity));
+
+            // When
+            final List<TheEntityBatchResultDTO> result = unitUnderTest.updateTheEntities(List.of(createEntity(null, NEW_TEXTATTRIBUT),
+                    createEntity(existingId, NEW_TEXTATTRIBUT)));
+
+            // Then
+            assertThat(result).extracting(TheEntityBatchResultDTO::status).containsExactly(BatchItemStatus.INVALID, BatchItemStatus.UPDATED);
+            assertThat(result.getFirst().message()).isEqualTo("id: must not be null");
+            verify(theEntityRepository).findAllById(List.of(existingId));
+        }
+    }
+
+    @Nested
+    class DeleteTheEntities {
+        @Test
+        void givenIds_thenFoundEntitiesAreDeleted() {
+            // Given
+            executeTransactionCallbacks();
+            final UUID existingId = UUID.randomUUID();
+            final UUID missingId = UUID.randomUUID();
+            final TheEntity existingEntity = createEntity(existingId, DEFAULT_TEXTATTRIBUT);
+            when(theEntityRepository.findAllById(List.of(existingId, missingId))).thenReturn(List.of(existingEntity));
+            final List<UUID> ids = new ArrayList<>(List.of(existingId, missingId));
+            ids.add(null);
+
+            // When
+            final List<TheEntityBatchResultDTO> result = unitUnderTest.deleteTheEntities(ids);
+
+            // Then
+            assertThat(result).extracting(TheEntityBatchResultDTO::status)
+                    .containsExactly(BatchItemStatus.DELETED, BatchItemStatus.NOT_FOUND, BatchItemStatus.INVALID);
+            final ArgumentCaptor<Iterable<TheEntity>> deletedEntities = ArgumentCaptor.captor();
+            verify(theEntityRepository).deleteAll(deletedEntities.capture());
+            assertThat(deletedEntities.getValue()).containsExactly(existingEntity);
+            verify(theEntityCache).evict(Set.of(existingId));
+        }
+    }
+}
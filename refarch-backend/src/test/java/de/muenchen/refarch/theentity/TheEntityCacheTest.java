@@ -0,0 +1,150 @@
+package de.muenchen.refarch.theentity;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.withSettings;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.UUID;
+import org.hibernate.StatelessSession;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.cache.spi.TimestampsCache;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+@ExtendWith(MockitoExtension.class)
+class TheEntityCacheTest {
+
+    private static final UUID THE_ENTITY_ID = UUID.randomUUID();
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache cache;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private jakarta.persistence.Cache secondLevelCache;
+
+    @Mock
+    private SessionFactoryImplementor sessionFactory;
+
+    @Mock
+    private CacheImplementor cacheImplementor;
+
+    @Mock
+    private TimestampsCache timestampsCache;
+
+    private final StatelessSession session = mock(StatelessSession.class, withSettings().extraInterfaces(SharedSessionContractImplementor.class));
+
+    private TheEntityCache unitUnderTest;
+
+    @BeforeEach
+    void setUp() {
+        unitUnderTest = new TheEntityCache(cacheManager, jdbcTemplate, entityManagerFactory);
+        lenient().when(cacheManager.getCache(TheEntityCache.CACHE_NAME)).thenReturn(cache);
+        lenient().when(entityManagerFactory.getCache()).thenReturn(secondLevelCache);
+        lenient().when(entityManagerFactory.unwrap(SessionFactoryImplementor.class)).thenReturn(sessionFactory);
+        lenient().when(sessionFactory.openStatelessSession()).thenReturn(session);
+        lenient().when(sessionFactory.getCache()).thenReturn(cacheImplementor);
+        lenient().when(cacheImplementor.getTimestampsCache()).thenReturn(timestampsCache);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Nested
+    class Evict {
+        @Test
+        void givenNoTransaction_thenEvictImmediately() {
+            // When
+            unitUnderTest.evict(List.of(THE_ENTITY_ID));
+
+            // Then
+            verify(cache).evict(THE_ENTITY_ID);
+            verify(secondLevelCache).evict(TheEntity.class, THE_ENTITY_ID);
+            verify(timestampsCache).invalidate(new String[] { TheEntityCache.QUERY_SPACE }, (SharedSessionContractImplementor) session);
+            verify(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), eq(TheEntityCache.CHANNEL), any());
+        }
+
+        @Test
+        void givenTransaction_thenEvictAfterCommit() {
+            // Given
+            TransactionSynchronizationManager.initSynchronization();
+
+            // When
+            unitUnderTest.evict(List.of(THE_ENTITY_ID));
+
+            // Then
+            verify(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), eq(TheEntityCache.CHANNEL), any());
+            verify(cache, never()).evict(THE_ENTITY_ID);
+            TransactionSynchronizationUtils.triggerAfterCommit();
+            verify(cache).evict(THE_ENTITY_ID);
+            verify(secondLevelCache).evict(TheEntity.class, THE_ENTITY_ID);
+        }
+
+        @Test
+        void givenRollback_thenNothingIsEvicted() {
+            // Given
+            TransactionSynchronizationManager.initSynchronization();
+
+            // When
+            unitUnderTest.evictNotified(THE_ENTITY_ID);
+            TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+                    TransactionSynchronization.STATUS_ROLLED_BACK);
+
+            // Then
+            verify(cache, never()).evict(any());
+            verify(secondLevelCache, never()).evict(TheEntity.class, THE_ENTITY_ID);
+        }
+    }
+
+    @Nested
+    class EvictAll {
+        @Test
+        void givenTransaction_thenClearAfterCommit() {
+            // Given
+            TransactionSynchronizationManager.initSynchronization();
+
+            // When
+            unitUnderTest.evictAll();
+
+            // Then
+            verify(cache, never()).clear();
+            TransactionSynchronizationUtils.triggerAfterCommit();
+            verify(cache).clear();
+            verify(secondLevelCache).evict(TheEntity.class);
+            verify(timestampsCache).invalidate(new String[] { TheEntityCache.QUERY_SPACE }, (SharedSessionContractImplementor) session);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package de.muenchen.refarch.theentity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.muenchen.refarch.theentity.dto.ImportFormat;
+import de.muenchen.refarch.theentity.dto.TheEntityImportRejectionDTO;
+import de.muenchen.refarch.theentity.dto.TheEntityImportResultDTO;
+import jakarta.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class TheEntityImportServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PGConnection pgConnection;
+
+    @Mock
+    private CopyManager copyManager;
+
+    @Mock
+    private CopyIn copyIn;
+
+    @Mock
+    private TheEntityCache theEntityCache;
+
+    private final ByteArrayOutputStream copiedRows = new ByteArrayOutputStream();
+
+    private TheEntityImportService unitUnderTest;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        final TheEntityProperties theEntityProperties = new TheEntityProperties();
+        theEntityProperties.setImportMaxReportedRejections(1);
+        unitUnderTest = new TheEntityImportService(jdbcTemplate, new ObjectMapper(), Validation.buildDefaultValidatorFactory().getValidator(),
+                theEntityProperties, theEntityCache);
+
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenAnswer(invocation -> invocation.getArgument(0, ConnectionCallback.class)
+                .doInConnection(connection));
+        when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        when(pgConnection.getCopyAPI()).thenReturn(copyManager);
+        when(copyManager.copyIn(TheEntityImportService.COPY_STATEMENT)).thenReturn(copyIn);
+        lenient().doAnswer(invocation -> {
+            copiedRows.write(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2));
+            return null;
+        }).when(copyIn).writeToCopy(any(byte[].class), anyInt(), anyInt());
+        when(copyIn.endCopy()).thenAnswer(invocation -> copiedRows.toString(StandardCharsets.UTF_8).lines().count());
+    }
+
+    private TheEntityImportResultDTO importTheEntities(final String content, final ImportFormat format) {
+        return unitUnderTest.importTheEntities(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), format);
+    }
+
+    @Nested
+    class ImportCsv {
+        @Test
+        void givenCsv_thenValidLinesAreCopied() {
+            // When
+            final TheEntityImportResultDTO result = importTheEntities("textAttribute\nabc\n\"a,\"\"b\"\n\nx\n", ImportFormat.CSV);
+
+            // Then
+            assertThat(result.imported()).isEqualTo(2);
+            assertThat(result.rejected()).isEqualTo(1);
+            assertThat(result.rejections()).extracting(TheEntityImportRejectionDTO::line).containsExactly(5L);
+            assertThat(copiedRows.toString(StandardCharsets.UTF_8).lines())
+                    .extracting(row -> row.substring(row.indexOf(',') + 1))
+                    .containsExactly("\"abc\"", "\"a,\"\"b\"");
+        }
+
+        @Test
+        void givenMoreRejectionsThanReported_thenRejectionsAreCounted() {
+            // When
+            final TheEntityImportResultDTO result = importTheEntities("a,b\nx\n", ImportFormat.CSV);
+
+            // Then
+            assertThat(result.imported()).isZero();
+            assertThat(result.rejected()).isEqualTo(2);
+            assertThat(result.rejections()).containsExactly(new TheEntityImportRejectionDTO(1, "expected exactly one column"));
+        }
+
+        @Test
+        void givenDecomposedText_thenTextIsNormalized() {
+            // When
+            importTheEntities("München\n", ImportFormat.CSV);
+
+            // Then
+            assertThat(copiedRows.toString(StandardCharsets.UTF_8)).endsWith(",\"München\"\n");
+        }
+    }
+
+    @Nested
+    class ImportNdjson {
+        @Test
+        void givenNdjson_thenValidLinesAreCopied() throws SQLException {
+            // When
+            final TheEntityImportResultDTO result = importTheEntities("{\"textAttribute\":\"abc\"}\n{\"textAttribute\":null}\n{invalid\n",
+                    ImportFormat.NDJSON);
+
+            // Then
+            assertThat(result.imported()).isEqualTo(1);
+            assertThat(result.rejected()).isEqualTo(2);
+            assertThat(result.rejections().getFirst().message()).contains("textAttribute");
+            verify(copyIn).endCopy();
+            verify(theEntityCache).evictAll();
+        }
+    }
+}
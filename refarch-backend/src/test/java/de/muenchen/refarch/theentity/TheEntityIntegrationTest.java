@@ -2,30 +2,51 @@ package de.muenchen.refarch.theentity;
 
 import static de.muenchen.refarch.TestConstants.SPRING_NO_SECURITY_PROFILE;
 import static de.muenchen.refarch.TestConstants.SPRING_TEST_PROFILE;
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import de.muenchen.refarch.TestConstants;
+import de.muenchen.refarch.theentity.dto.TheEntityBatchUpdateDTO;
+import de.muenchen.refarch.theentity.dto.TheEntityPatchDTO;
 import de.muenchen.refarch.theentity.dto.TheEntityRequestDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.util.List;
 import java.util.UUID;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.testcontainers.containers.PostgreSQLContainer;
@@ -51,15 +72,48 @@ class TheEntityIntegrationTest {
     private static final PostgreSQLContainer<?> POSTGRE_SQL_CONTAINER = new PostgreSQLContainer<>(
             DockerImageName.parse(TestConstants.TESTCONTAINERS_POSTGRES_IMAGE));
 
+    private static final String TEXT_ATTRIBUTE = "Test";
+
+    private static final String PARAM_PAGE_SIZE = "pageSize";
+
+    private static final String PARAM_PAGING_MODE = "pagingMode";
+
+    private static final String JSON_PATH_CONTENT = "$.content";
+
+    private static final String JSON_PATH_STATUS_FIRST = "$[0].status";
+
+    private static final String JSON_PATH_TEXT_ATTRIBUTE = "$.textAttribute";
+
+    private static final String PATH_THE_ENTITY_ID = "/theEntity/{theEntityId}";
+
+    private static final String PATH_THE_ENTITY = "/theEntity";
+
+    private static final String PATH_THE_ENTITY_KEYSET = "/theEntity/keyset";
+
+    private static final String TEXT_ATTRIBUTE_UPDATED = "Test2";
+
+    private static final String PAGE_SIZE_ALL = "1000";
+
+    private static final String ETAG_INITIAL_VERSION = "\"0\"";
+
     private UUID testEntityId;
 
     @Autowired
     private TheEntityRepository theEntityRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @BeforeEach
     public void setUp() {
         final TheEntity exampleEntity = new TheEntity();
-        exampleEntity.setTextAttribute("Test");
+        exampleEntity.setTextAttribute(TEXT_ATTRIBUTE);
         testEntityId = theEntityRepository.save(exampleEntity).getId();
     }
 
@@ -80,17 +134,248 @@ class TheEntityIntegrationTest {
         }
     }
 
+    @Nested
+    class CacheEntity {
+        @Test
+        void givenChangeNotifiedByOtherInstance_thenCachedEntityIsEvicted() throws Exception {
+            mockMvc.perform(get(PATH_THE_ENTITY_ID, testEntityId))
+                    .andExpect(jsonPath(JSON_PATH_TEXT_ATTRIBUTE, is(TEXT_ATTRIBUTE)));
+            jdbcTemplate.update("update the_entity set text_attribute = 'Changed' where id = ?", testEntityId);
+            mockMvc.perform(get(PATH_THE_ENTITY_ID, testEntityId))
+                    .andExpect(jsonPath(JSON_PATH_TEXT_ATTRIBUTE, is(TEXT_ATTRIBUTE)));
+
+            jdbcTemplate.queryForList("select pg_notify(?, ?)", TheEntityCache.CHANNEL, testEntityId.toString());
+
+            await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> mockMvc.perform(get(PATH_THE_ENTITY_ID, testEntityId))
+                    .andExpect(jsonPath(JSON_PATH_TEXT_ATTRIBUTE, is("Changed"))));
+        }
+
+        @Test
+        void givenUpdate_thenOnlyUpdatedEntityIsEvictedAndCachedQueriesAreStale() throws Exception {
+            final TheEntity otherEntity = new TheEntity();
+            otherEntity.setTextAttribute(TEXT_ATTRIBUTE);
+            final UUID otherEntityId = theEntityRepository.save(otherEntity).getId();
+            try {
+                theEntityRepository.findById(otherEntityId);
+                mockMvc.perform(get(PATH_THE_ENTITY).param(PARAM_PAGE_SIZE, PAGE_SIZE_ALL))
+                        .andExpect(jsonPath("$.content[?(@.id == '" + testEntityId + "')].textAttribute", contains(TEXT_ATTRIBUTE)));
+
+                mockMvc.perform(put(PATH_THE_ENTITY_ID, testEntityId)
+                        .content(objectMapper.writeValueAsString(new TheEntityRequestDTO(TEXT_ATTRIBUTE_UPDATED)))
+                        .contentType(MediaType.APPLICATION_JSON))
+                        .andExpect(status().isOk());
+
+                mockMvc.perform(get(PATH_THE_ENTITY).param(PARAM_PAGE_SIZE, PAGE_SIZE_ALL))
+                        .andExpect(jsonPath("$.content[?(@.id == '" + testEntityId + "')].textAttribute", contains(TEXT_ATTRIBUTE_UPDATED)));
+                assertTrue(entityManagerFactory.getCache().contains(TheEntity.class, otherEntityId));
+            } finally {
+                theEntityRepository.deleteById(otherEntityId);
+            }
+        }
+    }
+
+    @Nested
+    class SecondLevelCache {
+        @Test
+        void givenLoadedEntity_thenEntityIsInSecondLevelCache() {
+            entityManagerFactory.getCache().evict(TheEntity.class, testEntityId);
+
+            theEntityRepository.findById(testEntityId);
+
+            assertTrue(entityManagerFactory.getCache().contains(TheEntity.class, testEntityId));
+            assertTrue(meterRegistry.find("cache.gets").tag("cache", "the_entity").tag("result", "miss").functionCounter().count() > 0);
+        }
+    }
+
     @Nested
     class GetEntitiesPage {
         @Test
         void givenPageNumberAndPageSize_thenReturnPageOfEntities() throws Exception {
-            mockMvc.perform(get("/theEntity")
+            mockMvc.perform(get(PATH_THE_ENTITY)
                     .param("pageNumber", "0")
-                    .param("pageSize", "10")
+                    .param(PARAM_PAGE_SIZE, "10")
                     .contentType(MediaType.APPLICATION_JSON))
                     .andExpect(status().isOk())
                     .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                    .andExpect(jsonPath("$.content", hasSize(greaterThanOrEqualTo(0))));
+                    .andExpect(jsonPath(JSON_PATH_CONTENT, hasSize(greaterThanOrEqualTo(0))));
+        }
+
+        @ParameterizedTest
+        @ValueSource(strings = { "EXACT", "ESTIMATED" })
+        void givenPagingMode_thenReturnPageOfEntities(final String pagingMode) throws Exception {
+            mockMvc.perform(get(PATH_THE_ENTITY)
+                    .param("pageNumber", "0")
+                    .param(PARAM_PAGE_SIZE, "10")
+                    .param(PARAM_PAGING_MODE, pagingMode)
+                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath(JSON_PATH_CONTENT, hasSize(greaterThanOrEqualTo(1))))
+                    .andExpect(jsonPath("$.page.totalElements", greaterThanOrEqualTo(1)));
+        }
+
+        @Test
+        void givenPagingModeSlice_thenReturnSliceWithoutTotal() throws Exception {
+            mockMvc.perform(get(PATH_THE_ENTITY)
+                    .param("pageNumber", "0")
+                    .param(PARAM_PAGE_SIZE, "10")
+                    .param(PARAM_PAGING_MODE, "SLICE")
+                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(header().exists(HttpHeaders.ETAG))
+                    .andExpect(jsonPath(JSON_PATH_CONTENT, hasSize(greaterThanOrEqualTo(1))))
+                    .andExpect(jsonPath("$.pageNumber").value(0))
+                    .andExpect(jsonPath("$.hasNext").isBoolean())
+                    .andExpect(jsonPath("$.page").doesNotExist())
+                    .andExpect(jsonPath("$.totalElements").doesNotExist());
+        }
+
+        @ParameterizedTest
+        @ValueSource(strings = { "0", "-1", "1001" })
+        void givenInvalidPageSize_thenReturnBadRequest(final String pageSize) throws Exception {
+            mockMvc.perform(get(PATH_THE_ENTITY)
+                    .param(PARAM_PAGE_SIZE, pageSize)
+                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Nested
+    class GetEntitiesByKeyset {
+        @Test
+        void givenContinuationToken_thenReturnNextPage() throws Exception {
+            final TheEntity secondEntity = new TheEntity();
+            secondEntity.setTextAttribute("Test2");
+            final UUID secondEntityId = theEntityRepository.save(secondEntity).getId();
+            try {
+                final String firstPage = mockMvc.perform(get(PATH_THE_ENTITY_KEYSET)
+                        .param(PARAM_PAGE_SIZE, "1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath(JSON_PATH_CONTENT, hasSize(1)))
+                        .andExpect(jsonPath("$.hasNext", is(true)))
+                        .andExpect(jsonPath("$.continuationToken", not(nullValue())))
+                        .andReturn().getResponse().getContentAsString();
+                final JsonNode firstPageJson = objectMapper.readTree(firstPage);
+
+                mockMvc.perform(get(PATH_THE_ENTITY_KEYSET)
+                        .param(PARAM_PAGE_SIZE, "1")
+                        .param("continuationToken", firstPageJson.get("continuationToken").asText())
+                        .contentType(MediaType.APPLICATION_JSON))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath(JSON_PATH_CONTENT, hasSize(1)))
+                        .andExpect(jsonPath("$.content[0].id", not(is(firstPageJson.at("/content/0/id").asText()))));
+            } finally {
+                theEntityRepository.deleteById(secondEntityId);
+            }
+        }
+
+        @ParameterizedTest
+        @ValueSource(strings = { "0", "-1", "1001" })
+        void givenInvalidPageSize_thenReturnBadRequest(final String pageSize) throws Exception {
+            mockMvc.perform(get(PATH_THE_ENTITY_KEYSET)
+                    .param(PARAM_PAGE_SIZE, pageSize)
+                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        void givenInvalidContinuationToken_thenReturnBadRequest() throws Exception {
+            mockMvc.perform(get(PATH_THE_ENTITY_KEYSET)
+                    .param("continuationToken", "invalid")
+                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Nested
+    class ExportEntities {
+        @Test
+        void givenEntities_thenReturnOneJsonLinePerEntity() throws Exception {
+            final String export = mockMvc.perform(get("/theEntity/export"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                    .andReturn().getResponse().getContentAsString();
+
+            final List<String> lines = export.lines().toList();
+            assertEquals(theEntityRepository.count(), lines.size());
+            assertTrue(export.endsWith("\n"));
+            assertTrue(lines.stream().map(line -> readTree(line).get("id").asText()).anyMatch(testEntityId.toString()::equals));
+        }
+
+        private JsonNode readTree(final String line) {
+            try {
+                return objectMapper.readTree(line);
+            } catch (final JsonProcessingException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    @Nested
+    class ImportEntities {
+        @AfterEach
+        void tearDown() {
+            theEntityRepository.findAll().forEach(entity -> {
+                if (!testEntityId.equals(entity.getId())) {
+                    theEntityRepository.delete(entity);
+                }
+            });
+        }
+
+        @Test
+        void givenCsv_thenValidLinesAreImported() throws Exception {
+            final long countBefore = theEntityRepository.count();
+
+            mockMvc.perform(post("/theEntity/import")
+                    .content("textAttribute\nImport1\nImport2\nx\n")
+                    .contentType("text/csv"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.imported", is(2)))
+                    .andExpect(jsonPath("$.rejected", is(1)))
+                    .andExpect(jsonPath("$.rejections[0].line", is(4)));
+            assertEquals(countBefore + 2, theEntityRepository.count());
+        }
+
+        @Test
+        void givenNdjson_thenValidLinesAreImported() throws Exception {
+            mockMvc.perform(post("/theEntity/import")
+                    .content("{\"textAttribute\":\"Import3\"}\n")
+                    .contentType(MediaType.APPLICATION_NDJSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.imported", is(1)))
+                    .andExpect(jsonPath("$.rejected", is(0)));
+        }
+    }
+
+    @Nested
+    class BatchEntities {
+        @Test
+        void givenEntities_thenEntitiesAreCreatedUpdatedAndDeleted() throws Exception {
+            final String createBody = objectMapper.writeValueAsString(List.of(new TheEntityRequestDTO("Batch1"), new TheEntityRequestDTO("x")));
+            final String createResponse = mockMvc.perform(post("/theEntity/batch")
+                    .content(createBody)
+                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath(JSON_PATH_STATUS_FIRST, is("CREATED")))
+                    .andExpect(jsonPath("$[1].status", is("INVALID")))
+                    .andReturn().getResponse().getContentAsString();
+            final UUID createdId = UUID.fromString(objectMapper.readTree(createResponse).at("/0/id").asText());
+
+            final String updateBody = objectMapper.writeValueAsString(List.of(new TheEntityBatchUpdateDTO(createdId, "Batch2")));
+            mockMvc.perform(put("/theEntity/batch")
+                    .content(updateBody)
+                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath(JSON_PATH_STATUS_FIRST, is("UPDATED")));
+            assertEquals("Batch2", theEntityRepository.findById(createdId).orElseThrow().getTextAttribute());
+
+            mockMvc.perform(delete("/theEntity/batch")
+                    .content(objectMapper.writeValueAsString(List.of(createdId)))
+                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath(JSON_PATH_STATUS_FIRST, is("DELETED")));
+            assertFalse(theEntityRepository.existsById(createdId));
         }
     }
 
@@ -101,7 +386,7 @@ class TheEntityIntegrationTest {
             final TheEntityRequestDTO requestDTO = new TheEntityRequestDTO("Test1");
             final String requestBody = objectMapper.writeValueAsString(requestDTO);
 
-            mockMvc.perform(post("/theEntity")
+            mockMvc.perform(post(PATH_THE_ENTITY)
                     .content(requestBody)
                     .contentType(MediaType.APPLICATION_JSON))
                     .andExpect(status().isCreated())
@@ -127,6 +412,120 @@ class TheEntityIntegrationTest {
         }
     }
 
+    @Nested
+    class PatchEntity {
+        @Test
+        void givenCurrentVersion_thenEntityIsPatched() throws Exception {
+            final long version = theEntityRepository.findById(testEntityId).orElseThrow().getVersion();
+            final String requestBody = objectMapper.writeValueAsString(new TheEntityPatchDTO("Test3", version));
+
+            mockMvc.perform(patch(PATH_THE_ENTITY_ID, testEntityId)
+                    .content(requestBody)
+                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath(JSON_PATH_TEXT_ATTRIBUTE, is("Test3")))
+                    .andExpect(jsonPath("$.version", is((int) version + 1)));
+        }
+
+        @Test
+        void givenOutdatedVersion_thenReturnConflict() throws Exception {
+            final long version = theEntityRepository.findById(testEntityId).orElseThrow().getVersion();
+            final String requestBody = objectMapper.writeValueAsString(new TheEntityPatchDTO(null, version - 1));
+
+            mockMvc.perform(patch(PATH_THE_ENTITY_ID, testEntityId)
+                    .content(requestBody)
+                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isConflict());
+        }
+
+        @Test
+        void givenUnknownId_thenReturnNotFound() throws Exception {
+            mockMvc.perform(patch(PATH_THE_ENTITY_ID, UUID.randomUUID())
+                    .content(objectMapper.writeValueAsString(new TheEntityPatchDTO("Test3", null)))
+                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isNotFound());
+        }
+    }
+
+    @Nested
+    class ConditionalRequests {
+        @Test
+        void givenMatchingETag_thenReturnNotModified() throws Exception {
+            final String eTag = mockMvc.perform(get(PATH_THE_ENTITY_ID, testEntityId))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, ETAG_INITIAL_VERSION))
+                    .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+            mockMvc.perform(get(PATH_THE_ENTITY_ID, testEntityId).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().string(""));
+        }
+
+        @Test
+        void givenModifiedPage_thenReturnNewETag() throws Exception {
+            final String eTag = mockMvc.perform(get(PATH_THE_ENTITY).param(PARAM_PAGE_SIZE, PAGE_SIZE_ALL))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+            mockMvc.perform(get(PATH_THE_ENTITY).param(PARAM_PAGE_SIZE, PAGE_SIZE_ALL).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                    .andExpect(status().isNotModified());
+
+            mockMvc.perform(put(PATH_THE_ENTITY_ID, testEntityId)
+                    .content(objectMapper.writeValueAsString(new TheEntityRequestDTO(TEXT_ATTRIBUTE_UPDATED)))
+                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk());
+
+            mockMvc.perform(get(PATH_THE_ENTITY).param(PARAM_PAGE_SIZE, PAGE_SIZE_ALL).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, not(eTag)));
+        }
+
+        @Test
+        void givenChangedEstimate_thenETagOfEstimatedPageIsUnchanged() throws Exception {
+            final String eTag = mockMvc.perform(get(PATH_THE_ENTITY).param(PARAM_PAGE_SIZE, PAGE_SIZE_ALL).param(PARAM_PAGING_MODE, "ESTIMATED"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+            try {
+                jdbcTemplate.update("update pg_class set reltuples = 1000000 where oid = to_regclass('the_entity')");
+
+                mockMvc.perform(get(PATH_THE_ENTITY).param(PARAM_PAGE_SIZE, PAGE_SIZE_ALL).param(PARAM_PAGING_MODE, "ESTIMATED")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                        .andExpect(status().isNotModified());
+            } finally {
+                jdbcTemplate.execute("analyze the_entity");
+            }
+        }
+
+        @Test
+        void givenIfMatch_thenUpdateOnlyCurrentVersion() throws Exception {
+            final String requestBody = objectMapper.writeValueAsString(new TheEntityRequestDTO(TEXT_ATTRIBUTE_UPDATED));
+
+            mockMvc.perform(put(PATH_THE_ENTITY_ID, testEntityId)
+                    .header(HttpHeaders.IF_MATCH, ETAG_INITIAL_VERSION)
+                    .content(requestBody)
+                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+            mockMvc.perform(put(PATH_THE_ENTITY_ID, testEntityId)
+                    .header(HttpHeaders.IF_MATCH, ETAG_INITIAL_VERSION)
+                    .content(requestBody)
+                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isPreconditionFailed());
+        }
+
+        @Test
+        void givenIfMatch_thenDeleteOnlyCurrentVersion() throws Exception {
+            mockMvc.perform(delete(PATH_THE_ENTITY_ID, testEntityId).header(HttpHeaders.IF_MATCH, "\"1\""))
+                    .andExpect(status().isPreconditionFailed());
+            mockMvc.perform(delete(PATH_THE_ENTITY_ID, testEntityId).header(HttpHeaders.IF_MATCH, "W/\"0\""))
+                    .andExpect(status().isPreconditionFailed());
+            mockMvc.perform(delete(PATH_THE_ENTITY_ID, testEntityId).header(HttpHeaders.IF_MATCH, ETAG_INITIAL_VERSION))
+                    .andExpect(status().isOk());
+
+            assertFalse(theEntityRepository.existsById(testEntityId));
+        }
+    }
+
     @Nested
     class DeleteEntity {
         @Test
@@ -4,6 +4,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 import de.muenchen.refarch.theentity.dto.TheEntityMapper;
+import de.muenchen.refarch.theentity.dto.TheEntityPatchDTO;
 import de.muenchen.refarch.theentity.dto.TheEntityRequestDTO;
 import de.muenchen.refarch.theentity.dto.TheEntityResponseDTO;
 import java.util.UUID;
@@ -47,7 +48,19 @@ class TheEntityMapperTest {
             final TheEntity result = theEntityMapper.toEntity(requestDTO);
 
             // Then
-            assertThat(result).usingRecursiveComparison().ignoringFields("id").isEqualTo(requestDTO);
+            assertThat(result).usingRecursiveComparison().ignoringFields("id", "version").isEqualTo(requestDTO);
+        }
+
+        @Test
+        void givenPatchDTO_thenReturnsCorrectEntity() {
+            // Given
+            final TheEntityPatchDTO patchDTO = new TheEntityPatchDTO("test", 1L);
+
+            // When
+            final TheEntity result = theEntityMapper.toEntity(patchDTO);
+
+            // Then
+            assertThat(result).usingRecursiveComparison().ignoringFields("id").isEqualTo(patchDTO);
         }
     }
 
@@ -3,13 +3,19 @@ package de.muenchen.refarch.theentity;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import de.muenchen.refarch.common.ConflictException;
 import de.muenchen.refarch.common.NotFoundException;
-import java.util.Arrays;
+import de.muenchen.refarch.common.PagingMode;
+import de.muenchen.refarch.theentity.dto.TheEntityResponseDTO;
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -18,10 +24,14 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Window;
 
 @ExtendWith(MockitoExtension.class)
 class TheEntityServiceTest {
@@ -30,66 +40,177 @@ class TheEntityServiceTest {
     @Mock
     private TheEntityRepository theEntityRepository;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TheEntityCache theEntityCache;
+
     @InjectMocks
     private TheEntityService unitUnderTest;
 
     @Nested
-    class GetTheEntity {
+    class GetTheEntityResponse {
         @Test
-        void givenUUID_thenReturnEntity() {
+        void givenUUID_thenReturnResponse() {
             // Given
             final UUID id = UUID.randomUUID();
-            final TheEntity theEntity = new TheEntity();
-            theEntity.setId(id);
-            theEntity.setTextAttribute(DEFAULT_TEXTATTRIBUT);
-            when(theEntityRepository.findById(id)).thenReturn(Optional.of(theEntity));
+            final TheEntityResponseDTO response = new TheEntityResponseDTO(id, DEFAULT_TEXTATTRIBUT, 0L);
+            when(theEntityRepository.findResponseById(id)).thenReturn(Optional.of(response));
 
             // When
-            final TheEntity result = unitUnderTest.getTheEntity(id);
+            final TheEntityResponseDTO result = unitUnderTest.getTheEntityResponse(id);
 
             // Then
-            verify(theEntityRepository).findById(id);
-            assertThat(result).usingRecursiveComparison().isEqualTo(theEntity);
+            Assertions.assertEquals(response, result);
         }
 
         @Test
         void givenNonExistentUUID_thenThrowNotFoundException() {
             // Given
             final UUID id = UUID.randomUUID();
-            when(theEntityRepository.findById(id)).thenReturn(Optional.empty());
+            when(theEntityRepository.findResponseById(id)).thenReturn(Optional.empty());
 
             // When
-            final Exception exception = Assertions.assertThrows(NotFoundException.class, () -> unitUnderTest.getTheEntity(id));
+            final Exception exception = Assertions.assertThrows(NotFoundException.class, () -> unitUnderTest.getTheEntityResponse(id));
 
             // Then
-            verify(theEntityRepository).findById(id);
-            Assertions.assertEquals(exception.getClass(), NotFoundException.class);
             Assertions.assertEquals(exception.getMessage(), String.format("404 NOT_FOUND \"Could not find entity with id %s\"", id));
         }
     }
 
     @Nested
-    class GetEntitiesPage {
+    class GetEntityResponsesPage {
+        @Test
+        void givenPagingModeExact_thenReturnPageWithCount() {
+            // Given
+            final Pageable pageRequest = PageRequest.of(0, 10);
+            final Page<TheEntityResponseDTO> expectedPage = new PageImpl<>(List.of(createResponse()), pageRequest, 1);
+            when(theEntityRepository.findAllResponses(pageRequest)).thenReturn(expectedPage);
+
+            // When
+            final Page<TheEntityResponseDTO> result = unitUnderTest.getAllEntityResponses(0, 10, PagingMode.EXACT);
+
+            // Then
+            Assertions.assertEquals(expectedPage, result);
+        }
+
+        @Test
+        void givenPagingModeSlice_thenThrowIllegalArgumentException() {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> unitUnderTest.getAllEntityResponses(0, 2, PagingMode.SLICE));
+            verifyNoInteractions(theEntityRepository);
+        }
+
         @Test
-        void givenPageNumberAndPageSize_thenReturnPageOfEntities() {
+        void givenPagingModeEstimated_thenReturnPageWithEstimatedTotal() {
             // Given
-            final int pageNumber = 0;
-            final int pageSize = 10;
-            final Pageable pageRequest = PageRequest.of(pageNumber, pageSize);
+            final Pageable pageRequest = PageRequest.of(0, 2);
+            final List<TheEntityResponseDTO> responses = List.of(createResponse(), createResponse());
+            when(theEntityRepository.findResponsesBy(pageRequest)).thenReturn(new SliceImpl<>(responses, pageRequest, true));
+            when(theEntityRepository.estimateCount()).thenReturn(1000L);
 
-            final TheEntity entity1 = new TheEntity();
-            final TheEntity entity2 = new TheEntity();
-            final List<TheEntity> entities = Arrays.asList(entity1, entity2);
-            final Page<TheEntity> expectedPage = new PageImpl<>(entities, pageRequest, entities.size());
+            // When
+            final Page<TheEntityResponseDTO> result = unitUnderTest.getAllEntityResponses(0, 2, PagingMode.ESTIMATED);
 
-            when(theEntityRepository.findAll(pageRequest)).thenReturn(expectedPage);
+            // Then
+            Assertions.assertEquals(responses, result.getContent());
+            Assertions.assertEquals(1000, result.getTotalElements());
+            verify(theEntityRepository, times(0)).count();
+        }
+
+        @Test
+        void givenPagingModeEstimatedWithoutStatistics_thenReturnPageWithExactTotal() {
+            // Given
+            final Pageable pageRequest = PageRequest.of(0, 2);
+            final List<TheEntityResponseDTO> responses = List.of(createResponse(), createResponse());
+            when(theEntityRepository.findResponsesBy(pageRequest)).thenReturn(new SliceImpl<>(responses, pageRequest, true));
+            when(theEntityRepository.estimateCount()).thenReturn(-1L);
+            when(theEntityRepository.count()).thenReturn(3L);
 
             // When
-            final Page<TheEntity> result = unitUnderTest.getAllEntities(pageNumber, pageSize);
+            final Page<TheEntityResponseDTO> result = unitUnderTest.getAllEntityResponses(0, 2, PagingMode.ESTIMATED);
 
             // Then
-            Assertions.assertEquals(expectedPage, result);
-            verify(theEntityRepository, times(1)).findAll(pageRequest);
+            Assertions.assertEquals(3, result.getTotalElements());
+            verify(theEntityRepository).count();
+        }
+    }
+
+    @Nested
+    class GetEntityResponseSlice {
+        @Test
+        void givenPageNumberAndPageSize_thenReturnSliceWithoutCount() {
+            // Given
+            final Pageable pageRequest = PageRequest.of(1, 2);
+            final List<TheEntityResponseDTO> responses = List.of(createResponse(), createResponse());
+            when(theEntityRepository.findResponsesBy(pageRequest)).thenReturn(new SliceImpl<>(responses, pageRequest, true));
+
+            // When
+            final Slice<TheEntityResponseDTO> result = unitUnderTest.getEntityResponseSlice(1, 2);
+
+            // Then
+            Assertions.assertEquals(responses, result.getContent());
+            Assertions.assertTrue(result.hasNext());
+            verify(theEntityRepository, times(0)).count();
+            verify(theEntityRepository, times(0)).estimateCount();
+        }
+    }
+
+    @Nested
+    class GetEntityResponsesAfter {
+        @Test
+        void givenNoLastSeenId_thenReturnFirstWindow() {
+            // Given
+            final List<TheEntityResponseDTO> responses = List.of(createResponse(), createResponse(), createResponse());
+            when(theEntityRepository.findResponsesOrderedById(Limit.of(3))).thenReturn(responses);
+
+            // When
+            final Window<TheEntityResponseDTO> result = unitUnderTest.getEntityResponsesAfter(null, 2);
+
+            // Then
+            Assertions.assertEquals(responses.subList(0, 2), result.getContent());
+            Assertions.assertTrue(result.hasNext());
+        }
+
+        @Test
+        void givenLastSeenId_thenReturnWindowAfterId() {
+            // Given
+            final UUID lastSeenId = UUID.randomUUID();
+            final List<TheEntityResponseDTO> responses = List.of(createResponse());
+            when(theEntityRepository.findResponsesOrderedByIdAfter(lastSeenId, Limit.of(3))).thenReturn(responses);
+
+            // When
+            final Window<TheEntityResponseDTO> result = unitUnderTest.getEntityResponsesAfter(lastSeenId, 2);
+
+            // Then
+            Assertions.assertEquals(responses, result.getContent());
+            Assertions.assertFalse(result.hasNext());
+        }
+    }
+
+    private static TheEntityResponseDTO createResponse() {
+        return new TheEntityResponseDTO(UUID.randomUUID(), DEFAULT_TEXTATTRIBUT, 0L);
+    }
+
+    @Nested
+    class ExportTheEntities {
+        @Test
+        void givenEntities_thenEntitiesAreConsumedAndDetached() {
+            // Given
+            final TheEntity firstEntity = new TheEntity();
+            firstEntity.setId(UUID.randomUUID());
+            final TheEntity secondEntity = new TheEntity();
+            secondEntity.setId(UUID.randomUUID());
+            final List<TheEntity> consumedEntities = new ArrayList<>();
+            when(theEntityRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.of(firstEntity, secondEntity));
+
+            // When
+            unitUnderTest.exportTheEntities(consumedEntities::add);
+
+            // Then
+            assertThat(consumedEntities).containsExactly(firstEntity, secondEntity);
+            verify(entityManager).detach(firstEntity);
+            verify(entityManager).detach(secondEntity);
         }
     }
 
@@ -113,6 +234,7 @@ class TheEntityServiceTest {
             // Then
             assertThat(result).usingRecursiveComparison().ignoringFields("id").isEqualTo(expectedEntity);
             verify(theEntityRepository).save(entityToSave);
+            verify(theEntityCache).evict(List.of(expectedEntity.getId()));
         }
     }
 
@@ -123,20 +245,20 @@ class TheEntityServiceTest {
             // Given
             final TheEntity entityToUpdate = new TheEntity();
             final UUID entityToUpdateId = UUID.randomUUID();
-            entityToUpdate.setId(entityToUpdateId);
             entityToUpdate.setTextAttribute(DEFAULT_TEXTATTRIBUT);
             final TheEntity expectedEntity = new TheEntity();
             expectedEntity.setId(entityToUpdateId);
             expectedEntity.setTextAttribute(DEFAULT_TEXTATTRIBUT);
-            when(theEntityRepository.save(entityToUpdate)).thenReturn(expectedEntity);
-            when(theEntityRepository.findById(entityToUpdateId)).thenReturn(Optional.of(entityToUpdate));
+            expectedEntity.setVersion(1L);
+            when(theEntityRepository.updateReturning(entityToUpdateId, DEFAULT_TEXTATTRIBUT, null)).thenReturn(Optional.of(expectedEntity));
 
             // When
             final TheEntity result = unitUnderTest.updateTheEntity(entityToUpdate, entityToUpdateId);
 
             // Then
             assertThat(result).usingRecursiveComparison().isEqualTo(expectedEntity);
-            verify(theEntityRepository).save(entityToUpdate);
+            verify(theEntityRepository).updateReturning(entityToUpdateId, DEFAULT_TEXTATTRIBUT, null);
+            verify(theEntityCache).evictNotified(entityToUpdateId);
         }
 
         @Test
@@ -144,19 +266,36 @@ class TheEntityServiceTest {
             // Given
             final UUID entityToUpdateId = UUID.randomUUID();
             final TheEntity entityToUpdate = new TheEntity();
-            entityToUpdate.setId(entityToUpdateId);
             entityToUpdate.setTextAttribute(DEFAULT_TEXTATTRIBUT);
 
-            when(theEntityRepository.findById(entityToUpdate.getId())).thenReturn(Optional.empty());
+            when(theEntityRepository.updateReturning(entityToUpdateId, DEFAULT_TEXTATTRIBUT, null)).thenReturn(Optional.empty());
 
             // When
             final Exception exception = Assertions.assertThrows(NotFoundException.class, () -> unitUnderTest.updateTheEntity(entityToUpdate, entityToUpdateId));
 
             // Then
-            verify(theEntityRepository, times(1)).findById(entityToUpdate.getId());
+            verify(theEntityRepository, times(1)).updateReturning(entityToUpdateId, DEFAULT_TEXTATTRIBUT, null);
             Assertions.assertEquals(exception.getClass(), NotFoundException.class);
             Assertions.assertEquals(exception.getMessage(), String.format("404 NOT_FOUND \"Could not find entity with id %s\"", entityToUpdateId));
+            verifyNoInteractions(theEntityCache);
+        }
+
+        @Test
+        void givenOutdatedVersion_thenThrowConflictException() {
+            // Given
+            final UUID entityToUpdateId = UUID.randomUUID();
+            final TheEntity entityToUpdate = new TheEntity();
+            entityToUpdate.setVersion(1L);
 
+            when(theEntityRepository.updateReturning(entityToUpdateId, null, 1L)).thenReturn(Optional.empty());
+            when(theEntityRepository.existsById(entityToUpdateId)).thenReturn(true);
+
+            // When
+            final Exception exception = Assertions.assertThrows(ConflictException.class, () -> unitUnderTest.updateTheEntity(entityToUpdate, entityToUpdateId));
+
+            // Then
+            Assertions.assertEquals(String.format("409 CONFLICT \"Entity with id %s does not have the expected version 1\"", entityToUpdateId),
+                    exception.getMessage());
         }
     }
 
@@ -173,6 +312,48 @@ class TheEntityServiceTest {
 
             // Then
             verify(theEntityRepository).deleteById(entityToDeleteId);
+            verify(theEntityCache).evict(List.of(entityToDeleteId));
+        }
+
+        @Test
+        void givenTheEntityIdAndVersion_thenDeleteWithVersion() {
+            // Given
+            final UUID entityToDeleteId = UUID.randomUUID();
+            when(theEntityRepository.deleteByIdAndVersion(entityToDeleteId, 1L)).thenReturn(1);
+
+            // When
+            unitUnderTest.deleteTheEntity(entityToDeleteId, 1L);
+
+            // Then
+            verify(theEntityCache).evict(List.of(entityToDeleteId));
+        }
+
+        @Test
+        void givenOutdatedVersion_thenThrowConflictException() {
+            // Given
+            final UUID entityToDeleteId = UUID.randomUUID();
+            when(theEntityRepository.deleteByIdAndVersion(entityToDeleteId, 1L)).thenReturn(0);
+            when(theEntityRepository.existsById(entityToDeleteId)).thenReturn(true);
+
+            // When
+            Assertions.assertThrows(ConflictException.class, () -> unitUnderTest.deleteTheEntity(entityToDeleteId, 1L));
+
+            // Then
+            verifyNoInteractions(theEntityCache);
+        }
+
+        @Test
+        void givenUnknownIdAndVersion_thenThrowNotFoundException() {
+            // Given
+            final UUID entityToDeleteId = UUID.randomUUID();
+            when(theEntityRepository.deleteByIdAndVersion(entityToDeleteId, 1L)).thenReturn(0);
+            when(theEntityRepository.existsById(entityToDeleteId)).thenReturn(false);
+
+            // When
+            Assertions.assertThrows(NotFoundException.class, () -> unitUnderTest.deleteTheEntity(entityToDeleteId, 1L));
+
+            // Then
+            verifyNoInteractions(theEntityCache);
         }
     }
 }